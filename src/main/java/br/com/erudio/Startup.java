@@ -2,6 +2,7 @@ package br.com.erudio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 //import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 //import org.springframework.security.crypto.password.PasswordEncoder;
 //import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
@@ -9,7 +10,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 //import java.util.HashMap;
 //import java.util.Map;
 
-@SpringBootApplication
+//O R2DBC só é usado para leituras (controller Reactive*). Sem essa exclusão o Boot criaria um segundo TransactionManager,
+//e o @Transactional do JPA deixaria de saber qual usar
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
 public class Startup {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package br.com.erudio.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint GET de busca por id cujo corpo já serializado pode ser guardado no ResponseBodyCache.
+ * O valor é o nome do recurso usado na chave e na invalidação (ex: "person"), e idVariable é a variável do path com o id.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+
+    String value();
+
+    String idVariable() default "id";
+}
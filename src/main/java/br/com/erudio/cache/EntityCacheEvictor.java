@@ -0,0 +1,92 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.datasource.ReadWriteRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tira do cache de segundo nível só as entidades alteradas pelos UPDATEs e DELETEs diretos dos repositórios, em vez da
+ * região inteira como o Hibernate faz sozinho com um comando JPQL.
+ * A entrada sai na hora e de novo quando a transação termina: uma leitura concorrente entre o comando e o commit ainda
+ * encontra a linha antiga no banco e poderia colocá-la de volta no cache.
+ * Com as réplicas de leitura, a linha antiga também pode vir de uma réplica atrasada depois do commit. Os ids ficam
+ * lembrados por max-lag + lag-check-interval, e uma entidade desses ids carregada de uma réplica nesse intervalo sai do
+ * cache logo depois do load.
+ */
+@Component
+public class EntityCacheEvictor {
+
+    private static final int MAX_TRACKED_EVICTIONS = 100_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${datasource-routing.max-lag:5s}")
+    private Duration replicaMaxLag = Duration.ofSeconds(5);
+    @Value("${datasource-routing.lag-check-interval:1s}")
+    private Duration replicaLagCheckInterval = Duration.ofSeconds(1);
+
+    private com.github.benmanes.caffeine.cache.Cache<EntityKey, Boolean> recentlyEvicted;
+
+    @PostConstruct
+    protected void init() {
+        recentlyEvicted = Caffeine.newBuilder()
+                .expireAfterWrite(replicaMaxLag.plus(replicaLagCheckInterval))
+                .maximumSize(MAX_TRACKED_EVICTIONS)
+                .build();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this::onPostLoad);
+    }
+
+    public void evict(Class<?> entityClass, Object id) {
+        evict(entityClass, List.of(id));
+    }
+
+    public void evict(Class<?> entityClass, Collection<?> ids) {
+        Cache cache = entityManagerFactory.getCache();
+        evict(cache, entityClass, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(cache, entityClass, ids);
+                }
+            });
+        }
+    }
+
+    private void evict(Cache cache, Class<?> entityClass, Collection<?> ids) {
+        for (Object id : ids) {
+            cache.evict(entityClass, id);
+            recentlyEvicted.put(new EntityKey(entityClass, id), Boolean.TRUE);
+        }
+    }
+
+    //O Hibernate já gravou a entidade no cache quando o PostLoad chega
+    private void onPostLoad(PostLoadEvent event) {
+        Class<?> entityClass = event.getPersister().getMappedClass();
+        if (ReadWriteRoutingDataSource.isReplicaRead()
+                && recentlyEvicted.getIfPresent(new EntityKey(entityClass, event.getId())) != null) {
+            entityManagerFactory.getCache().evict(entityClass, event.getId());
+        }
+    }
+
+    private record EntityKey(Class<?> entityClass, Object id) {
+    }
+}
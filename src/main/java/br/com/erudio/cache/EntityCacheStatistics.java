@@ -0,0 +1,55 @@
+package br.com.erudio.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estatísticas por região do cache de segundo nível (person, book, users, user-permissions, permission e as consultas cacheáveis).
+ * Os números vêm do próprio Caffeine (monitoring.native-statistics no application.conf): hits, misses, taxa de acerto,
+ * evictions e tamanho estimado. O tempo de carga de uma entidade que não estava no cache é o tempo da consulta no banco,
+ * que fica nas estatísticas do Hibernate (hibernate.generate_statistics).
+ */
+@Component
+public class EntityCacheStatistics {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public Map<String, RegionStatistics> snapshot() {
+        CacheManager cacheManager = cacheManager();
+        return cacheManager == null ? Collections.emptyMap() : snapshot(cacheManager);
+    }
+
+    //Retorna null quando o cache de segundo nível está desligado (hibernate.cache.use_second_level_cache: false)
+    public CacheManager cacheManager() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        return regionFactory instanceof JCacheRegionFactory jcache ? jcache.getCacheManager() : null;
+    }
+
+    public static Map<String, RegionStatistics> snapshot(CacheManager cacheManager) {
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache == null) continue;
+            var caffeine = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats stats = caffeine.stats();
+            regions.put(name, new RegionStatistics(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), caffeine.estimatedSize()));
+        }
+        return regions;
+    }
+
+    public record RegionStatistics(long hitCount, long missCount, double hitRatio, long evictionCount, long estimatedSize) {
+    }
+}
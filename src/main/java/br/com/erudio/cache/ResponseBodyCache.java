@@ -0,0 +1,198 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.datasource.ReadWriteRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache dos corpos de resposta já serializados (JSON, XML ou YAML) dos GETs por id de /api/person/v1 e /api/book/v1.
+ * Numa leitura repetida pulamos banco, Dozer, links e serialização: os bytes guardados vão direto para o output stream.
+ *
+ * A chave é (recurso, id, media type, URI base), porque os links HATEOAS dentro do corpo dependem do host da requisição.
+ * O tamanho é limitado pela soma dos bytes (response-cache.max-size).
+ *
+ * Os services chamam evict() depois de toda escrita. Cada (recurso, id) tem um carimbo que o evict incrementa, e o carimbo
+ * é a única invalidação: uma entrada gravada com um carimbo antigo deixa de ser servida pelo get() (e é removida ali
+ * mesmo), e as que ninguém pedir de novo saem pelo ttl ou pelo limite de tamanho. Assim o evict custa um incremento, em
+ * vez de percorrer as chaves do cache procurando as variações (media type, URI base) daquele id.
+ * O mesmo carimbo impede que uma leitura que começou antes da escrita grave um corpo velho depois do evict: a leitura
+ * guarda o carimbo antes de ir ao banco e o corpo só é aceito se ele não mudou.
+ * Com as réplicas de leitura (datasource-routing), um GET de outro usuário logo depois da escrita pode ler a linha antiga
+ * numa réplica atrasada já com o carimbo novo. Por isso o put() recusa o corpo lido de uma réplica se o id foi alterado há
+ * menos de max-lag + lag-check-interval, o maior atraso que uma réplica ainda no rodízio pode ter.
+ * Os carimbos são divididos em faixas por hash, então um evict às vezes também invalida outro id da mesma faixa; isso só
+ * custa uma serialização a mais.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final int STAMP_STRIPES = 1024;
+    //Custo aproximado de cada entrada além dos bytes (chave, Entry e nós do Caffeine)
+    private static final int ENTRY_OVERHEAD = 160;
+
+    @Value("${response-cache.enabled:true}")
+    private boolean enabled = true;
+    @Value("${response-cache.max-size:32MB}")
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    @Value("${response-cache.ttl:10m}")
+    private Duration ttl = Duration.ofMinutes(10);
+
+    @Value("${datasource-routing.max-lag:5s}")
+    private Duration replicaMaxLag = Duration.ofSeconds(5);
+    @Value("${datasource-routing.lag-check-interval:1s}")
+    private Duration replicaLagCheckInterval = Duration.ofSeconds(1);
+
+    private Cache<Key, Entry> cache;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    //Momento (currentTimeMillis) do último evict de cada faixa, 0 se nunca houve
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(STAMP_STRIPES);
+
+    @PostConstruct
+    protected void init() {
+        if (enabled) {
+            cache = Caffeine.newBuilder()
+                    .maximumWeight(maxSize.toBytes())
+                    .weigher((Key key, Entry entry) -> entry.size() + ENTRY_OVERHEAD)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public long stamp(String resource, Object id) {
+        return stamps.get(stripe(resource, id));
+    }
+
+    public Entry get(Key key, long stamp) {
+        if (cache == null) return null;
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) return null;
+        if (entry.stamp != stamp) {
+            //Gravada antes de um evict: remove só se ainda for a mesma entrada, outra leitura pode já ter gravado a nova
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(Key key, long stamp, String contentType, String etag, byte[] body) {
+        //Uma escrita aconteceu durante essa leitura, o corpo pode estar velho
+        if (cache == null || stamp(key.resource(), key.id()) != stamp) return;
+        //Lido de uma réplica que talvez ainda não tenha recebido a última escrita desse id
+        if (ReadWriteRoutingDataSource.isReplicaRead() && changedWithinReplicaLag(key.resource(), key.id())) return;
+        cache.put(key, new Entry(stamp, contentType, etag, body));
+    }
+
+    public void evict(String resource, Object id) {
+        if (cache == null) return;
+        invalidate(resource, id);
+        //Dentro de uma transação, uma leitura pode ainda ver a linha antiga até o commit, então invalidamos de novo depois dele
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(resource, id);
+                }
+            });
+        }
+    }
+
+    public void evictAll(String resource, Collection<?> ids) {
+        if (cache == null || ids.isEmpty()) return;
+        invalidateAll(resource, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAll(resource, ids);
+                }
+            });
+        }
+    }
+
+    private void invalidateAll(String resource, Collection<?> ids) {
+        for (Object id : ids) {
+            invalidate(resource, id);
+        }
+    }
+
+    private void invalidate(String resource, Object id) {
+        int stripe = stripe(resource, id);
+        stamps.incrementAndGet(stripe);
+        invalidatedAt.set(stripe, System.currentTimeMillis());
+    }
+
+    private boolean changedWithinReplicaLag(String resource, Object id) {
+        long changedAt = invalidatedAt.get(stripe(resource, id));
+        return changedAt != 0
+                && System.currentTimeMillis() - changedAt < replicaMaxLag.plus(replicaLagCheckInterval).toMillis();
+    }
+
+    public void clear() {
+        if (cache != null) cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    public long weightedSize() {
+        return cache == null ? 0 : cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private static int stripe(String resource, Object id) {
+        int hash = 31 * resource.hashCode() + String.valueOf(id).hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    public record Key(String resource, String id, String mediaType, String baseUri) {
+    }
+
+    public static final class Entry {
+
+        private final long stamp;
+        private final String contentType;
+        private final String etag;
+        private final byte[] body;
+
+        private Entry(long stamp, String contentType, String etag, byte[] body) {
+            this.stamp = stamp;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public int size() {
+            return body.length;
+        }
+
+        public void writeTo(OutputStream output) throws IOException {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.erudio.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Lado da gravação do ResponseBodyCache. Num miss de um endpoint @CachedResponse, serializa o corpo uma vez em memória com o
+ * mesmo conversor que o Spring escolheu, guarda os bytes e escreve esses mesmos bytes na resposta. Retornar null faz o Spring
+ * não serializar o corpo de novo.
+ */
+@ControllerAdvice
+public class ResponseBodyCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private ResponseBodyCache cache;
+
+    //@Lazy porque o RequestMappingHandlerAdapter é quem procura os ResponseBodyAdvice na inicialização
+    @Lazy
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(CachedResponse.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) return body;
+        var lookup = (ResponseBodyCacheInterceptor.Lookup) servletRequest.getServletRequest()
+                .getAttribute(ResponseBodyCacheInterceptor.LOOKUP_ATTRIBUTE);
+        //Se a negociação do Spring chegou num tipo diferente do que usamos na chave, não guardamos nada
+        if (lookup == null || !selectedContentType.isCompatibleWith(MediaType.valueOf(lookup.key().mediaType()))) return body;
+
+        HttpMessageConverter<Object> converter = findConverter(body, returnType, selectedContentType, selectedConverterType);
+        if (converter == null) return body;
+
+        try {
+            var buffered = new BufferedOutputMessage();
+            if (converter instanceof GenericHttpMessageConverter<Object> generic) {
+                generic.write(body, body.getClass(), selectedContentType, buffered);
+            } else {
+                converter.write(body, selectedContentType, buffered);
+            }
+            byte[] bytes = buffered.body.toByteArray();
+            MediaType contentType = buffered.headers.getContentType() != null ? buffered.headers.getContentType() : selectedContentType;
+
+            //O ETag já foi copiado do ResponseEntity para os headers da resposta antes desse ponto
+            cache.put(lookup.key(), lookup.stamp(), contentType.toString(), response.getHeaders().getETag(), bytes);
+
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().setContentLength(bytes.length);
+            response.getBody().write(bytes);
+            return null;
+        } catch (IOException e) {
+            //Deixa o Spring tentar escrever do jeito normal e reportar o erro
+            return body;
+        }
+    }
+
+    //Mesma regra do Spring: o primeiro conversor da lista, da classe escolhida, que consegue escrever esse corpo nesse tipo.
+    //Usamos a classe do corpo como tipo porque o retorno do método pode ser um ResponseEntity<VO>
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> findConverter(Object body, MethodParameter returnType, MediaType contentType,
+                                                       Class<? extends HttpMessageConverter<?>> converterType) {
+        for (HttpMessageConverter<?> converter : handlerAdapter.getMessageConverters()) {
+            if (converter.getClass() != converterType) continue;
+            boolean canWrite = converter instanceof GenericHttpMessageConverter<?> generic
+                    ? generic.canWrite(body.getClass(), body.getClass(), contentType)
+                    : converter.canWrite(body.getClass(), contentType);
+            if (canWrite) return (HttpMessageConverter<Object>) converter;
+        }
+        return null;
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.util.ETags;
+import br.com.erudio.util.LinkTemplate;
+import br.com.erudio.util.MediaType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Atende os GETs marcados com @CachedResponse direto do ResponseBodyCache, antes do controller ser chamado.
+ * Como é um interceptor do Spring MVC, ele roda depois dos filtros do Spring Security e do CORS: a requisição já foi
+ * autenticada quando chegamos aqui. Num miss, deixa na requisição a chave e o carimbo para o ResponseBodyCacheAdvice gravar.
+ */
+@Component
+public class ResponseBodyCacheInterceptor implements HandlerInterceptor {
+
+    public static final String LOOKUP_ATTRIBUTE = ResponseBodyCacheInterceptor.class.getName() + ".LOOKUP";
+
+    //Só ids na forma canônica, para que "01" e "1" não virem chaves diferentes que o evict(1) não alcança
+    private static final Pattern CANONICAL_ID = Pattern.compile("0|[1-9][0-9]{0,18}");
+
+    @Autowired
+    private ResponseBodyCache cache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!cache.isEnabled() || !"GET".equals(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) return true;
+        CachedResponse cachedResponse = handlerMethod.getMethodAnnotation(CachedResponse.class);
+        if (cachedResponse == null) return true;
+
+        @SuppressWarnings("unchecked")
+        var variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables == null ? null : variables.get(cachedResponse.idVariable());
+        if (id == null || !CANONICAL_ID.matcher(id).matches()) return true;
+
+        String mediaType = MediaType.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (mediaType == null) return true;
+
+        var key = new ResponseBodyCache.Key(cachedResponse.value(), id, mediaType, LinkTemplate.baseUri());
+        //O carimbo é lido antes do controller ir ao banco
+        long stamp = cache.stamp(key.resource(), id);
+        var entry = cache.get(key, stamp);
+        if (entry == null) {
+            request.setAttribute(LOOKUP_ATTRIBUTE, new Lookup(key, stamp));
+            return true;
+        }
+
+        if (entry.getETag() != null) {
+            response.setHeader(HttpHeaders.ETAG, entry.getETag());
+            if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.getETag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return false;
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.getContentType());
+        response.setContentLength(entry.size());
+        entry.writeTo(response.getOutputStream());
+        return false;
+    }
+
+    public record Lookup(ResponseBodyCache.Key key, long stamp) {
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.erudio.config;
+
+import br.com.erudio.datasource.DataSourceRoutingProperties;
+import br.com.erudio.datasource.ReadWriteRoutingDataSource;
+import br.com.erudio.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Separação de leitura e escrita, ligada por datasource-routing.enabled. Com ela desligada o Spring Boot continua criando o
+ * DataSource único de sempre a partir do spring.datasource.
+ * O DataSource que o JPA, o Flyway e o resto da aplicação recebem é o LazyConnectionDataSourceProxy do roteador; fora de
+ * uma transação readOnly (migrations, escritas) ele sempre chega no primário.
+ * O Hibernate devolve a conexão ao fim de cada transação: com o open-in-view, o EntityManager da requisição atravessa
+ * várias transações, e a conexão de uma leitura na réplica não pode ficar presa a ele para o save que vem depois.
+ * O R2DBC do caminho reativo continua apontando para o spring.r2dbc.url.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    //Mesmo pool que o Spring Boot criaria, com o spring.datasource.hikari aplicado
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceRoutingProperties routing, DataSourceProperties primary) {
+        var monitor = new ReplicaLagMonitor(replicas(routing, primary), routing.getLagQuery(), routing.getMaxLag());
+        monitor.start(routing.getLagCheckInterval());
+        return monitor;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                                                 DataSourceRoutingProperties routing) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaLagMonitor, routing.getReadYourWrites(),
+                routing.getMaxTrackedWriters());
+    }
+
+    //O Spring configura DELAYED_ACQUISITION_AND_HOLD, que prende a primeira conexão ao EntityManager até ele fechar.
+    //Soltando ao fim da transação, a próxima pede uma conexão nova e passa de novo pelo roteador
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return readWriteRoutingDataSource.proxy();
+    }
+
+    //Pools só de leitura, fechados pelo ReplicaLagMonitor junto com a aplicação
+    private static Map<String, DataSource> replicas(DataSourceRoutingProperties routing, DataSourceProperties primary) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (var replica : routing.getReplicas()) {
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            //Uma réplica fora do ar na subida só fica fora do rodízio, em vez de derrubar a aplicação
+            dataSource.setInitializationFailTimeout(-1);
+            //O Spring Boot só registra as métricas dos pools que são beans. O registry global, e não o MeterRegistry, porque
+            //os MeterBinder dependem do EntityManagerFactory, que depende deste DataSource
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+            replicas.put(name, dataSource);
+        }
+        return replicas;
+    }
+}
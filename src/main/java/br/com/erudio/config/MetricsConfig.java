@@ -0,0 +1,87 @@
+package br.com.erudio.config;
+
+import br.com.erudio.cache.EntityCacheStatistics;
+import br.com.erudio.cache.ResponseBodyCache;
+import br.com.erudio.security.cache.UserDetailsCache;
+import br.com.erudio.security.hashing.PasswordHashingExecutor;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publica no Micrometer (e no /actuator/prometheus) os contadores que a aplicação já mantinha: pool do PBKDF2, caches de
+ * usuário, de respostas e de segundo nível, e o pinning das virtual threads.
+ * Tudo aqui é lido só na hora da coleta (gauges e FunctionCounters sobre os getters), sem nenhum custo no caminho das
+ * requisições. As métricas do HTTP, do Hikari e do Hibernate vêm da autoconfiguração do actuator.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingExecutor executor) {
+        return registry -> {
+            Gauge.builder("security.password.pool.size", executor, PasswordHashingExecutor::getPoolSize).register(registry);
+            Gauge.builder("security.password.pool.active", executor, PasswordHashingExecutor::getActiveCount).register(registry);
+            Gauge.builder("security.password.queue.depth", executor, PasswordHashingExecutor::getQueueDepth).register(registry);
+            Gauge.builder("security.password.queue.capacity", executor, PasswordHashingExecutor::getQueueCapacity).register(registry);
+            FunctionCounter.builder("security.password.rejected", executor, PasswordHashingExecutor::getRejectedCount)
+                    .tag("reason", "queue-full").register(registry);
+            FunctionCounter.builder("security.password.rejected", executor, PasswordHashingExecutor::getTimedOutCount)
+                    .tag("reason", "timeout").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder applicationCacheMetrics(UserDetailsCache userDetailsCache, ResponseBodyCache responseBodyCache) {
+        return registry -> {
+            bindCacheStats(registry, "user-details", userDetailsCache::stats);
+            bindCacheStats(registry, "response-body", responseBodyCache::stats);
+            Gauge.builder("cache.weighted.size", responseBodyCache, ResponseBodyCache::weightedSize)
+                    .tag("cache", "response-body").baseUnit("bytes").register(registry);
+        };
+    }
+
+    //Uma série por região do cache de segundo nível, com os mesmos nomes das métricas de cache do Micrometer
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityCacheStatistics entityCacheStatistics) {
+        return registry -> {
+            CacheManager cacheManager = entityCacheStatistics.cacheManager();
+            if (cacheManager == null) return;
+            for (String name : cacheManager.getCacheNames()) {
+                var cache = cacheManager.getCache(name);
+                if (cache == null) continue;
+                CaffeineCacheMetrics.monitor(registry, cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), name);
+            }
+        };
+    }
+
+    //O monitor só existe com o profile virtual-threads
+    @Bean
+    public MeterBinder pinnedThreadMetrics(ObjectProvider<PinnedThreadMonitor> pinnedThreadMonitor) {
+        return registry -> pinnedThreadMonitor.ifAvailable(monitor ->
+                FunctionCounter.builder("jvm.threads.virtual.pinned", monitor, PinnedThreadMonitor::getPinnedCount)
+                        .description("Virtual thread pinning events above virtual-threads.pinned-threshold")
+                        .register(registry));
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        counter(registry, "cache.gets", stats, CacheStats::hitCount, "cache", cache, "result", "hit");
+        counter(registry, "cache.gets", stats, CacheStats::missCount, "cache", cache, "result", "miss");
+        counter(registry, "cache.evictions", stats, CacheStats::evictionCount, "cache", cache);
+    }
+
+    private static void counter(MeterRegistry registry, String name, Supplier<CacheStats> stats,
+                                ToDoubleFunction<CacheStats> value, String... tags) {
+        FunctionCounter.builder(name, stats, s -> value.applyAsDouble(s.get())).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.erudio.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnóstico de pinning no modo virtual-threads. Uma virtual thread que bloqueia dentro de um bloco synchronized (ou em código
+ * nativo) prende a thread de plataforma que a carrega, e com poucas delas (uma por núcleo) a aplicação inteira pode travar.
+ * O driver do MySQL 8.0 sincroniza em volta do I/O de rede, então cada consulta em andamento prende uma carrier: mantenha o
+ * pool do Hikari abaixo do número de núcleos ou use um driver sem synchronized no caminho de I/O.
+ * Aqui o evento jdk.VirtualThreadPinned do JFR é lido em streaming dentro da própria aplicação, e cada ocorrência acima de
+ * virtual-threads.pinned-threshold é logada com o topo da pilha. O JDK também imprime a pilha no stdout com
+ * -Djdk.tracePinnedThreads=short ou full (o profile virtual-threads do Maven já liga o short).
+ */
+@Component
+@Profile("virtual-threads")
+public class PinnedThreadMonitor {
+
+    private final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold = Duration.ofMillis(20);
+
+    private final LongAdder pinned = new LongAdder();
+    private RecordingStream stream;
+
+    @PostConstruct
+    protected void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    protected void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        StringBuilder message = new StringBuilder("Virtual thread pinned for ")
+                .append(event.getDuration().toMillis()).append(" ms");
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            List<RecordedFrame> frames = stackTrace.getFrames();
+            for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+                RecordedFrame frame = frames.get(i);
+                message.append("\n\tat ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+            }
+        }
+        logger.warn(message.toString());
+    }
+
+    //Total de eventos de pinning acima do limite desde a subida
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+}
@@ -1,8 +1,14 @@
 package br.com.erudio.config;
 
+import br.com.erudio.security.hashing.PasswordEncoderProfiles;
+import br.com.erudio.security.hashing.PasswordEncoderProperties;
+import br.com.erudio.security.hashing.PasswordHashingExecutor;
+import br.com.erudio.security.hashing.PooledPasswordEncoder;
 import br.com.erudio.security.jwt.JwtConfigurer;
 import br.com.erudio.security.jwt.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,22 +17,28 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 
 @EnableWebSecurity
 @Configuration
+@EnableConfigurationProperties(PasswordEncoderProperties.class)
 public class SecurityConfig {
 
     @Autowired
     private final JwtTokenProvider jwtTokenProvider;
 
+    //Porta separada do actuator, que não é publicada para fora do cluster. Só nela o health (probes) e o prometheus (scrape)
+    //dispensam autenticação: na porta da API, ou sem porta separada, todo o actuator continua autenticado
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    @Value("${server.port:8080}")
+    private int serverPort;
+
     public SecurityConfig(JwtTokenProvider jwtTokenProvider) {
         this.jwtTokenProvider = jwtTokenProvider;
     }
@@ -41,15 +53,13 @@ public class SecurityConfig {
 //        return passwordEncoder;
 //    }
 
+    //Os perfis de hash ficam em security.password-encoder, o prefixo {id} de cada senha diz qual perfil a gerou.
+    //O hash roda no pool limitado do PasswordHashingExecutor, fora da thread do Tomcat
     @Bean
-    PasswordEncoder passwordEncoder() {
-        Map<String, PasswordEncoder> encoders = new HashMap<>();
-
-        Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder("", 8, 185000, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
-        encoders.put("pbkdf2", pbkdf2PasswordEncoder);
-        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
-        passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2PasswordEncoder);
-        return passwordEncoder;
+    PasswordEncoder passwordEncoder(PasswordEncoderProperties passwordEncoderProperties,
+                                    PasswordHashingExecutor passwordHashingExecutor) {
+        return new PooledPasswordEncoder(PasswordEncoderProfiles.delegatingEncoder(passwordEncoderProperties),
+                passwordHashingExecutor);
     }
 
     @Bean
@@ -73,6 +83,10 @@ public class SecurityConfig {
                                         "/swagger-ui/**",
                                         "/v3/api-docs/**"
                                 ).permitAll() //Essas urls não precisam se autenticar
+                                .requestMatchers(internalMonitoring(managementPort, serverPort)).permitAll()
+                                //O dump do JFR mostra o que a aplicação está fazendo por dentro: só administradores
+                                .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasAuthority("ADMIN")
+                                .requestMatchers("/actuator/**").authenticated()
                                 .requestMatchers("/api/**").authenticated() //Somente autenticado
                                 .requestMatchers("/users").denyAll() //Aqui negamos as urls
                 )
@@ -84,4 +98,12 @@ public class SecurityConfig {
 
     }
 
+    public static RequestMatcher internalMonitoring(int managementPort, int serverPort) {
+        RequestMatcher monitoring = new OrRequestMatcher(
+                AntPathRequestMatcher.antMatcher("/actuator/health/**"),
+                AntPathRequestMatcher.antMatcher("/actuator/prometheus"));
+        boolean separatePort = managementPort > 0 && managementPort != serverPort;
+        return request -> separatePort && request.getLocalPort() == managementPort && monitoring.matches(request);
+    }
+
 }
@@ -0,0 +1,56 @@
+package br.com.erudio.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer service.method{class, method} para cada método público de PersonService, BookService e AuthService.
+ * O TimedAspect do Micrometer monta as tags e procura o Timer no registry a cada chamada; aqui o Timer de cada método é
+ * criado na primeira chamada e depois só lido do mapa, então o custo por chamada é um get e dois System.nanoTime.
+ * Sobrecargas (ex: findById(Long) e findById(Long, String, String)) têm as mesmas tags e somam no mesmo Timer.
+ * Os services reativos ficam de fora: o método só monta o Flux/Mono, e o tempo medido não seria o da consulta.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * br.com.erudio.service.PersonService.*(..))"
+            + " || execution(public * br.com.erudio.service.BookService.*(..))"
+            + " || execution(public * br.com.erudio.service.AuthService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) timer = timers.computeIfAbsent(method, this::timer);
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method) {
+        return Timer.builder("service.method")
+                .description("Time spent in a service method, including its transaction")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.erudio.config;
+
+import br.com.erudio.logging.MdcTaskDecorator;
+import br.com.erudio.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Modo de execução com virtual threads, ligado pelo profile "virtual-threads" (application-virtual-threads.yml) e que exige JDK 21.
+ * O Tomcat passa a atender cada requisição em uma virtual thread, então uma consulta lenta no MySQL deixa de ocupar uma das
+ * 200 threads do pool: o limite de concorrência real passa a ser o pool do Hikari.
+ * O applicationTaskExecutor (usado pelo @Async e pelas respostas assíncronas, como a exportação em streaming) também cria uma
+ * virtual thread por tarefa.
+ * O pool do PBKDF2 (PasswordHashingExecutor) continua com threads de plataforma de propósito: o hash é CPU pura, e o tamanho
+ * fixo do pool é o que protege o resto da aplicação de uma rajada de logins.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public VirtualThreadConfig() {
+        //Falha na subida, em vez de cair para threads de plataforma sem ninguém perceber
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("The virtual-threads profile needs JDK 21 or newer, running on " + Runtime.version());
+        }
+        logger.info("Running requests on virtual threads");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-handler"));
+    }
+
+    //Substitui o ThreadPoolTaskExecutor que o Spring Boot criaria com esse mesmo nome
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(MdcTaskDecorator mdcTaskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task"));
+        //O Spring Boot só aplica o TaskDecorator no executor que ele mesmo cria
+        executor.setTaskDecorator(mdcTaskDecorator);
+        return executor;
+    }
+}
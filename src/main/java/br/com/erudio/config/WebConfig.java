@@ -2,13 +2,16 @@ package br.com.erudio.config;
 
 import java.util.List;
 
+import br.com.erudio.cache.ResponseBodyCacheInterceptor;
 import br.com.erudio.serialization.converter.YamlJackson2HttpConverter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -19,6 +22,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.originPatterns:default}")
     private String corsOriginPatterns = "";
 
+    @Autowired
+    private ResponseBodyCacheInterceptor responseBodyCacheInterceptor;
+
 
     @Override
     public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
@@ -26,6 +32,12 @@ public class WebConfig implements WebMvcConfigurer {
     }
 
 
+    //Respostas já serializadas dos GETs por id (@CachedResponse)
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(responseBodyCacheInterceptor).addPathPatterns("/api/**");
+    }
+
     //Configurando CORS de forma global para os domínios no application.yml
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -1,8 +1,12 @@
 package br.com.erudio.controller;
 
+import br.com.erudio.cache.CachedResponse;
+import br.com.erudio.data.vo.v1.BatchResultVO;
+import br.com.erudio.data.vo.v1.BulkResultVO;
 import br.com.erudio.data.vo.v1.BookVO;
 import br.com.erudio.service.BookService;
 import br.com.erudio.util.MediaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,8 +17,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -57,6 +63,33 @@ public class BookController {
         return ResponseEntity.ok(service.findAll(pageable));
     }
 
+    @GetMapping(params = "after", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Finds All Books by cursor", description = "Finds All Books using keyset pagination, ordered by title and id. Send an empty 'after' for the first page and follow the next/prev links",
+            tags = {"Books"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(schema = @Schema(implementation = BookVO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    //Paginação por cursor: não usa OFFSET nem COUNT(*), então o custo não cresce conforme avançamos nas páginas
+    public ResponseEntity<CollectionModel<EntityModel<BookVO>>> findAllByCursor(
+            //Cursor opaco recebido nos links next/prev. Vazio para a primeira página
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(service.findAllByCursor(after, size, sortDirection));
+    }
+
     @GetMapping(value = "{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
     //Annotation do swagger
     @Operation(summary = "Finds a Book", description = "Finds a Book",
@@ -65,14 +98,18 @@ public class BookController {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = BookVO.class))
                     ),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public BookVO findById(@PathVariable(value = "id") Long id) {
-        return service.findById(id);
+    @CachedResponse("book")
+    public ResponseEntity<BookVO> findById(@PathVariable(value = "id") Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.findById(id, ifNoneMatch, accept);
     }
 
     @PostMapping(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
@@ -92,6 +129,23 @@ public class BookController {
         return service.create(book);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Adds or updates books in batch", description = "Adds the items without id and updates the items with id. Each item gets its own result (201, 200, 400, 404 or 409), so an invalid item does not fail the others",
+            tags = {"Books"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchResultVO.class)))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public List<BatchResultVO<BookVO>> saveAll(@RequestBody List<BookVO> books) {
+        return service.saveAll(books);
+    }
+
     @PutMapping(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
             produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
 //Annotation do swagger
@@ -104,10 +158,37 @@ public class BookController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public BookVO update(@RequestBody BookVO book) {
-        return service.create(book);
+    public ResponseEntity<BookVO> update(@RequestBody BookVO book,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.update(book, ifMatch, accept);
+    }
+
+    @PatchMapping(value = "{id}", consumes = {MediaType.APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_PATCH_JSON},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Partially updates a Book", description = "Updates only the fields in a JSON Merge Patch (application/merge-patch+json) or JSON Patch (application/json-patch+json) document. The X-Columns-Written header tells how many columns were written",
+            tags = {"Books"},
+            responses = {
+                    @ApiResponse(description = "Updated", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = BookVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<BookVO> patch(@PathVariable(value = "id") Long id,
+                                          @RequestBody JsonNode body,
+                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean jsonPatch = contentType.toLowerCase().startsWith(MediaType.APPLICATION_JSON_PATCH_JSON);
+        return service.patch(id, body, jsonPatch, ifMatch, accept);
     }
 
     @DeleteMapping(value = "{id}")
@@ -119,11 +200,29 @@ public class BookController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<?> delete(@PathVariable(value = "id") Long id) {
-        service.delete(id);
+    public ResponseEntity<?> delete(@PathVariable(value = "id") Long id,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.delete(id, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping(params = "ids", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Deletes Books in batch", description = "Deletes every Book in ids (e.g. ?ids=1,2,3) with a single DELETE and returns how many rows were affected",
+            tags = {"Books"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = BulkResultVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public BulkResultVO deleteBooks(@RequestParam(value = "ids") List<Long> ids) {
+        return service.deleteBooks(ids);
+    }
+
 }
@@ -1,9 +1,16 @@
 package br.com.erudio.controller;
 
+import br.com.erudio.cache.CachedResponse;
+import br.com.erudio.data.vo.v1.BatchResultVO;
+import br.com.erudio.data.vo.v1.BulkResultVO;
+import br.com.erudio.data.vo.v1.ImportReportVO;
 import br.com.erudio.data.vo.v1.PersonVO;
 import br.com.erudio.data.vo.v2.PersonVOV2;
+import br.com.erudio.service.PersonExportService;
+import br.com.erudio.service.PersonImportService;
 import br.com.erudio.service.PersonService;
 import br.com.erudio.util.MediaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,18 +21,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/person/v1")
 @Tag(name = "People", description = "Endpoints for managing People")
 public class PersonController {
 
+    //Formatos aceitos pelo PATCH com corpo, devolvidos no 415 do PATCH que desabilita a pessoa
+    private static final List<org.springframework.http.MediaType> PATCH_DOCUMENTS = List.of(
+            org.springframework.http.MediaType.valueOf(MediaType.APPLICATION_MERGE_PATCH_JSON),
+            org.springframework.http.MediaType.valueOf(MediaType.APPLICATION_JSON_PATCH_JSON));
+
     @Autowired
     private PersonService service;
+    @Autowired
+    private PersonExportService exportService;
+    @Autowired
+    private PersonImportService importService;
     //private PersonService service = new PersonService();
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
@@ -62,6 +89,33 @@ public class PersonController {
         return ResponseEntity.ok(service.findAll(pageable));
     }
 
+    @GetMapping(params = "after", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Finds All People by cursor", description = "Finds All People using keyset pagination, ordered by firstName and id. Send an empty 'after' for the first page and follow the next/prev links",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonVO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    //Paginação por cursor: não usa OFFSET nem COUNT(*), então o custo não cresce conforme avançamos nas páginas
+    public ResponseEntity<CollectionModel<EntityModel<PersonVO>>> findAllByCursor(
+            //Cursor opaco recebido nos links next/prev. Vazio para a primeira página
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(service.findAllByCursor(after, size, sortDirection));
+    }
+
     @GetMapping(value = "/findPersonByName/{firstName}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
     //Annotation do swagger
     @Operation(summary = "Finds People by Name", description = "Finds People by Name",
@@ -97,6 +151,50 @@ public class PersonController {
         return ResponseEntity.ok(service.findPersonsByName(firstName ,pageable));
     }
 
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON, MediaType.TEXT_CSV})
+    //Annotation do swagger
+    @Operation(summary = "Exports all People", description = "Streams every person as NDJSON (one JSON object per line) or CSV, optionally filtered by enabled and gender. The response is gzipped when the client sends Accept-Encoding: gzip",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200", content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON),
+                            @Content(mediaType = MediaType.TEXT_CSV)
+                    }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    //Substitui paginar a tabela inteira com OFFSET e COUNT: uma única consulta lida em streaming e escrita direto na resposta
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "enabled", required = false) Boolean enabled,
+            @RequestParam(value = "gender", required = false) String gender,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        var exportFormat = "csv".equalsIgnoreCase(format) ? PersonExportService.Format.CSV : PersonExportService.Format.NDJSON;
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        //O corpo é escrito em outra thread, depois que o controller retorna, enquanto as linhas são lidas do banco
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                exportService.export(exportFormat, enabled, gender, out);
+                return;
+            }
+            //Compressão feita na hora, conforme as linhas são escritas
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+            exportService.export(exportFormat, enabled, gender, compressed);
+            compressed.finish();
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType(
+                        exportFormat == PersonExportService.Format.CSV ? MediaType.TEXT_CSV : MediaType.APPLICATION_NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people." + exportFormat.name().toLowerCase() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+
     @CrossOrigin(origins = "http://localhost:8080")
     @GetMapping(value = "{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
     //Annotation do swagger
@@ -106,14 +204,18 @@ public class PersonController {
                     @ApiResponse(description = "Success", responseCode = "200",
                             content = @Content(schema = @Schema(implementation = PersonVO.class))
                     ),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public PersonVO findById(@PathVariable(value = "id") Long id) {
-        return service.findById(id);
+    @CachedResponse("person")
+    public ResponseEntity<PersonVO> findById(@PathVariable(value = "id") Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.findById(id, ifNoneMatch, accept);
     }
 
 //    @CrossOrigin(origins = {"http://localhost:8080", "https://erudio.com.br"})
@@ -151,6 +253,47 @@ public class PersonController {
         return service.createV2(person);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Adds or updates people in batch", description = "Adds the items without id and updates the items with id. Each item gets its own result (201, 200, 400, 404 or 409), so an invalid item does not fail the others",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchResultVO.class)))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public List<BatchResultVO<PersonVO>> saveAll(@RequestBody List<PersonVO> people) {
+        return service.saveAll(people);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.TEXT_CSV, MediaType.APPLICATION_NDJSON},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Imports People", description = "Imports people from a CSV (with header) or NDJSON body, read as it arrives. Invalid lines are skipped and reported. The body may be gzipped (Content-Encoding: gzip)",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ImportReportVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    //O corpo é lido direto do InputStream da requisição, sem passar por um HttpMessageConverter que montaria tudo na memória
+    public ImportReportVO importPeople(InputStream body,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) throws IOException {
+        var format = contentType.toLowerCase().startsWith(MediaType.TEXT_CSV)
+                ? PersonImportService.Format.CSV : PersonImportService.Format.NDJSON;
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        return importService.importPeople(format, in);
+    }
+
     @PutMapping(consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
             produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
 //Annotation do swagger
@@ -163,12 +306,41 @@ public class PersonController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public PersonVO update(@RequestBody PersonVO person) throws Exception {
-        return service.create(person);
+    public ResponseEntity<PersonVO> update(@RequestBody PersonVO person,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return service.update(person, ifMatch, accept);
+    }
+
+    @PatchMapping(value = "{id}", consumes = {MediaType.APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_PATCH_JSON},
+            produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Partially updates a Person", description = "Updates only the fields in a JSON Merge Patch (application/merge-patch+json) or JSON Patch (application/json-patch+json) document. The X-Columns-Written header tells how many columns were written",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Updated", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = PersonVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public ResponseEntity<PersonVO> patch(@PathVariable(value = "id") Long id,
+                                          @RequestBody JsonNode body,
+                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean jsonPatch = contentType.toLowerCase().startsWith(MediaType.APPLICATION_JSON_PATCH_JSON);
+        return service.patch(id, body, jsonPatch, ifMatch, accept);
     }
 
+    //Sem corpo, o PATCH continua desabilitando a pessoa. Um corpo que não é merge patch nem JSON patch (ex: application/json)
+    //cairia aqui e desabilitaria a pessoa por engano: ele é recusado com 415 e os formatos aceitos no Accept-Patch
     @PatchMapping(value = "{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
     //Annotation do swagger
     @Operation(summary = "Disable a specific Person by your ID", description = "Disable a specific Person by your ID",
@@ -181,10 +353,22 @@ public class PersonController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
+                    @ApiResponse(description = "Unsupported Media Type", responseCode = "415", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public PersonVO disablePerson(@PathVariable(value = "id") Long id) {
-        return service.disablePerson(id);
+    public ResponseEntity<PersonVO> disablePerson(@PathVariable(value = "id") Long id,
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+                                                  @RequestHeader(value = HttpHeaders.TRANSFER_ENCODING, required = false) String transferEncoding,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws HttpMediaTypeNotSupportedException {
+        //Só o corpo importa: clientes costumam mandar um Content-Type mesmo no PATCH vazio
+        if (transferEncoding != null || (contentLength != null && contentLength > 0)) {
+            throw new HttpMediaTypeNotSupportedException(null, PATCH_DOCUMENTS, HttpMethod.PATCH,
+                    "Content-Type '" + contentType + "' is not supported, send a merge patch or a JSON patch document");
+        }
+        return service.disablePerson(id, ifMatch, accept);
     }
 
     @DeleteMapping(value = "{id}")
@@ -196,11 +380,45 @@ public class PersonController {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
             })
-    public ResponseEntity<?> delete(@PathVariable(value = "id") Long id) throws Exception {
-        service.delete(id);
+    public ResponseEntity<?> delete(@PathVariable(value = "id") Long id,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.delete(id, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping(params = "ids", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Disables People in batch", description = "Disables every Person in ids (e.g. ?ids=1,2,3) with a single UPDATE and returns how many rows were affected",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = BulkResultVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public BulkResultVO disablePeople(@RequestParam(value = "ids") List<Long> ids) {
+        return service.disablePeople(ids);
+    }
+
+    @DeleteMapping(params = "ids", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Deletes People in batch", description = "Deletes every Person in ids (e.g. ?ids=1,2,3) with a single DELETE and returns how many rows were affected",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = BulkResultVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public BulkResultVO deletePeople(@RequestParam(value = "ids") List<Long> ids) {
+        return service.deletePeople(ids);
+    }
+
 }
@@ -0,0 +1,69 @@
+package br.com.erudio.controller;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.service.ReactiveBookService;
+import br.com.erudio.util.MediaType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de livros sem bloquear uma thread por requisição, ao lado das rotas do BookController. Segue o mesmo modelo do
+ * ReactivePersonController: Flux/Mono do R2DBC e streaming em NDJSON com back-pressure.
+ */
+@RestController
+@RequestMapping("/api/book/v1/reactive")
+@Tag(name = "Books (reactive)", description = "Non-blocking read endpoints for Books backed by R2DBC")
+public class ReactiveBookController {
+
+    @Autowired
+    private ReactiveBookService service;
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON})
+    //Annotation do swagger
+    @Operation(summary = "Streams All Books", description = "Streams books ordered by title and id. Without 'size' the whole table is streamed; use Accept: application/x-ndjson to receive one item per line as it is read",
+            tags = {"Books (reactive)"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_NDJSON, schema = @Schema(implementation = BookVO.class)),
+                                    @Content(mediaType = MediaType.APPLICATION_JSON, array = @ArraySchema(schema = @Schema(implementation = BookVO.class)))
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public Flux<BookVO> findAll(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return service.findAll(page, size, sortDirection);
+    }
+
+    @GetMapping(value = "{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Finds a Book", description = "Finds a Book without blocking a request thread",
+            tags = {"Books (reactive)"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = BookVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public Mono<BookVO> findById(@PathVariable(value = "id") Long id) {
+        return service.findById(id);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.erudio.controller;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.service.ReactivePersonService;
+import br.com.erudio.util.MediaType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de pessoas sem bloquear uma thread por requisição, ao lado das rotas do PersonController (que continuam cuidando
+ * das escritas). O controller devolve Flux/Mono do R2DBC e o Spring MVC libera a thread do Tomcat na hora. Com
+ * Accept: application/x-ndjson cada pessoa é escrita assim que é lida, e o próximo item só é pedido ao banco depois que o
+ * anterior foi escrito (back-pressure), então um cliente lento não faz a tabela inteira ficar na memória.
+ */
+@RestController
+@RequestMapping("/api/person/v1/reactive")
+@Tag(name = "People (reactive)", description = "Non-blocking read endpoints for People backed by R2DBC")
+public class ReactivePersonController {
+
+    @Autowired
+    private ReactivePersonService service;
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON})
+    //Annotation do swagger
+    @Operation(summary = "Streams All People", description = "Streams people ordered by firstName and id. Without 'size' the whole table is streamed; use Accept: application/x-ndjson to receive one item per line as it is read",
+            tags = {"People (reactive)"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_NDJSON, schema = @Schema(implementation = PersonVO.class)),
+                                    @Content(mediaType = MediaType.APPLICATION_JSON, array = @ArraySchema(schema = @Schema(implementation = PersonVO.class)))
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public Flux<PersonVO> findAll(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return service.findAll(page, size, sortDirection);
+    }
+
+    @GetMapping(value = "/findPersonByName/{firstName}", produces = {MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON})
+    //Annotation do swagger
+    @Operation(summary = "Streams People by Name", description = "Streams every person whose first name contains the term",
+            tags = {"People (reactive)"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_NDJSON, schema = @Schema(implementation = PersonVO.class)),
+                                    @Content(mediaType = MediaType.APPLICATION_JSON, array = @ArraySchema(schema = @Schema(implementation = PersonVO.class)))
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public Flux<PersonVO> findPersonsByName(
+            @PathVariable(value = "firstName") String firstName,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return service.findPersonsByName(firstName, sortDirection);
+    }
+
+    @GetMapping(value = "{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+    //Annotation do swagger
+    @Operation(summary = "Finds a Person", description = "Finds a Person without blocking a request thread",
+            tags = {"People (reactive)"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = PersonVO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Error", responseCode = "500", content = @Content),
+            })
+    public Mono<PersonVO> findById(@PathVariable(value = "id") Long id) {
+        return service.findById(id);
+    }
+}
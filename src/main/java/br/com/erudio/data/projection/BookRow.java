@@ -0,0 +1,10 @@
+package br.com.erudio.data.projection;
+
+import java.util.Date;
+
+/**
+ * Linha de livro lida por constructor expression (SELECT new ...) nas consultas de listagem, sem passar pelo contexto de persistência.
+ * A versão vem junto para as respostas que precisam do ETag (ex: o livro recém alterado por PATCH).
+ */
+public record BookRow(Long id, String author, Date launchDate, Double price, String title, long version) {
+}
@@ -0,0 +1,9 @@
+package br.com.erudio.data.projection;
+
+/**
+ * Linha de pessoa lida por constructor expression (SELECT new ...) nas consultas de listagem.
+ * Não é uma entidade: o Hibernate não a coloca no contexto de persistência nem guarda snapshot para dirty checking.
+ * A versão vem junto para as respostas que precisam do ETag (ex: a pessoa recém desabilitada).
+ */
+public record PersonRow(Long id, String firstName, String lastName, String address, String gender, Boolean enabled, long version) {
+}
@@ -0,0 +1,87 @@
+package br.com.erudio.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Resultado de um item das rotas de lote (/batch). A posição (index) é a mesma do item na requisição e o status segue os códigos
+ * HTTP que a rota individual teria devolvido: 201 criado, 200 atualizado, 400 inválido, 404 não encontrado, 412 versão
+ * desatualizada, 409 recusado pelo banco.
+ */
+@JsonPropertyOrder({"index", "status", "item", "error"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultVO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+    private int status;
+    private T item;
+    private String error;
+
+    public BatchResultVO() {
+    }
+
+    public BatchResultVO(int index, int status, T item, String error) {
+        this.index = index;
+        this.status = status;
+        this.item = item;
+        this.error = error;
+    }
+
+    public static <T> BatchResultVO<T> success(int index, int status, T item) {
+        return new BatchResultVO<>(index, status, item, null);
+    }
+
+    public static <T> BatchResultVO<T> failure(int index, int status, String error) {
+        return new BatchResultVO<>(index, status, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public void setItem(T item) {
+        this.item = item;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchResultVO<?> that = (BatchResultVO<?>) o;
+        return index == that.index && status == that.status && Objects.equals(item, that.item) && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, status, item, error);
+    }
+}
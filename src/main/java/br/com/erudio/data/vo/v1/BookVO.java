@@ -21,6 +21,9 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
     private Date launchDate;
     private Double price;
     private String title;
+    //Versão que o cliente leu, usada pelo lote como o If-Match do PUT. Só é aceita na entrada, a resposta leva o ETag
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long version;
 
     public BookVO(){}
 
@@ -64,6 +67,14 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
         this.title = title;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,56 @@
+package br.com.erudio.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Resultado das operações em lote por lista de ids (desabilitar, excluir). Cada operação é um único UPDATE/DELETE, então o
+ * banco só informa quantas linhas foram afetadas: affected menor que requested quer dizer que alguns ids não existiam.
+ */
+@JsonPropertyOrder({"requested", "affected"})
+public class BulkResultVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int requested;
+    private int affected;
+
+    public BulkResultVO() {
+    }
+
+    public BulkResultVO(int requested, int affected) {
+        this.requested = requested;
+        this.affected = affected;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BulkResultVO that = (BulkResultVO) o;
+        return requested == that.requested && affected == that.affected;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requested, affected);
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.erudio.data.vo.v1;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resumo de uma importação em lote: quantas linhas foram lidas, gravadas e recusadas, o tempo total e a vazão.
+ * Só as primeiras linhas recusadas são descritas em rejectedLines (person-import.max-reported-errors), o total fica em rejected.
+ */
+@JsonPropertyOrder({"read", "imported", "rejected", "elapsedMillis", "rowsPerSecond", "rejectedLines"})
+public class ImportReportVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long read;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<String> rejectedLines = new ArrayList<>();
+
+    public ImportReportVO() {
+    }
+
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<String> getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(List<String> rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportReportVO that = (ImportReportVO) o;
+        return read == that.read && imported == that.imported && rejected == that.rejected && elapsedMillis == that.elapsedMillis
+                && Double.compare(that.rowsPerSecond, rowsPerSecond) == 0 && Objects.equals(rejectedLines, that.rejectedLines);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(read, imported, rejected, elapsedMillis, rowsPerSecond, rejectedLines);
+    }
+}
@@ -22,6 +22,9 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
     private String address;
     private String gender;
     private Boolean enabled;
+    //Versão que o cliente leu, usada pelo lote como o If-Match do PUT. Só é aceita na entrada, a resposta leva o ETag
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long version;
 
     public PersonVO() {
     }
@@ -73,6 +76,14 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
         this.enabled = enabled;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
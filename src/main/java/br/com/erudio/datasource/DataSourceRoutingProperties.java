@@ -0,0 +1,131 @@
+package br.com.erudio.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura do MySQL. Com enabled = true, as transações readOnly vão para uma das réplicas e todo o resto
+ * continua no spring.datasource (o primário). Usuário e senha de uma réplica, quando omitidos, são os do primário.
+ */
+@ConfigurationProperties("datasource-routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    //Atraso máximo tolerado: uma réplica mais atrasada que isso deixa de receber leituras até alcançar o primário
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    //Consulta do atraso; no MySQL 8.0.22+ é lida a coluna Seconds_Behind_Source, em qualquer outra a primeira coluna em segundos
+    private String lagQuery = "SHOW REPLICA STATUS";
+    //Depois de um commit, as leituras do mesmo usuário vão para o primário por esse tempo (read-your-writes)
+    private Duration readYourWrites = Duration.ofSeconds(5);
+    private int maxTrackedWriters = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public Duration getReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    public int getMaxTrackedWriters() {
+        return maxTrackedWriters;
+    }
+
+    public void setMaxTrackedWriters(int maxTrackedWriters) {
+        this.maxTrackedWriters = maxTrackedWriters;
+    }
+
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
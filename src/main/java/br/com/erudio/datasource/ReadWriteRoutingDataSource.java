@@ -0,0 +1,117 @@
+package br.com.erudio.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escolhe o banco de cada conexão: transações @Transactional(readOnly = true) (as listagens dos services e os métodos de
+ * leitura dos repositórios do Spring Data, que já são readOnly) vão para uma réplica em dia, em rodízio; o resto vai para o
+ * primário. Depois de um commit no primário, o mesmo usuário lê do primário por readYourWrites, para não ver o próprio
+ * dado antigo numa réplica que ainda não recebeu a alteração.
+ * Precisa ficar atrás de um LazyConnectionDataSourceProxy (veja proxy()): o JpaTransactionManager pede a conexão antes de
+ * marcar a transação como readOnly, e o proxy só pede a conexão de verdade no primeiro comando, quando a marca já existe.
+ * Uma leitura na réplica marca a transação e a requisição (isReplicaRead()): os caches compartilhados (ResponseBodyCache e o
+ * cache de segundo nível, pelo EntityCacheEvictor) não guardam o que veio dela para um id alterado há pouco, porque a
+ * réplica ainda pode ter a linha antiga e o cache a serviria para todos muito depois do atraso da réplica.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    private static final String REPLICA_READ = ReadWriteRoutingDataSource.class.getName() + ".REPLICA_READ";
+
+    private final ReplicaLagMonitor lagMonitor;
+    //Usuários com commit recente; a entrada some sozinha depois de readYourWrites
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor, Duration readYourWrites,
+                                      int maxTrackedWriters) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(maxTrackedWriters)
+                .build();
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public DataSource proxy() {
+        return new LazyConnectionDataSourceProxy(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) rememberWriter();
+            return PRIMARY;
+        }
+        String principal = principal();
+        if (principal != null && recentWriters.getIfPresent(principal) != null) return PRIMARY;
+        List<String> replicas = lagMonitor.getEligibleReplicas();
+        if (replicas.isEmpty()) return PRIMARY;
+        markReplicaRead();
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    //Se a transação atual, ou outra antes dela na mesma requisição, leu de uma réplica
+    public static boolean isReplicaRead() {
+        if (TransactionSynchronizationManager.hasResource(REPLICA_READ)) return true;
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(REPLICA_READ, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    //A marca da transação serve às leituras fora de uma requisição (exportação); a da requisição dura até a resposta ser
+    //escrita, depois do fim da transação
+    private static void markReplicaRead() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+                }
+            });
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) request.setAttribute(REPLICA_READ, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    //Uma transação de escrita que só leu também conta: saber se ela gravou exigiria olhar cada comando
+    private void rememberWriter() {
+        String principal = principal();
+        if (principal == null) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(principal, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) return null;
+        return authentication.getName();
+    }
+}
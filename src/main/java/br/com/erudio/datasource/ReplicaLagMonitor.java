@@ -0,0 +1,119 @@
+package br.com.erudio.datasource;
+
+import br.com.erudio.util.VirtualThreads;
+
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o atraso de cada réplica numa thread própria e mantém a lista das que podem receber leituras: as que responderam à
+ * consulta de atraso e estão até maxLag atrás do primário. Uma réplica com a replicação parada (Seconds_Behind_Source
+ * nulo) ou fora do ar sai da lista; se nenhuma sobrar, o ReadWriteRoutingDataSource lê do primário.
+ * O ReadWriteRoutingDataSource só lê a lista, que é trocada inteira a cada verificação.
+ * O monitor também é o dono dos pools das réplicas e os fecha no close().
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+    //Atraso de uma réplica que não respondeu ou não está replicando
+    static final long UNKNOWN_LAG = -1;
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final Map<String, Long> lags = new ConcurrentHashMap<>();
+    private volatile List<String> eligible = List.of();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+    }
+
+    //Até a primeira verificação terminar as leituras vão para o primário: uma réplica fora do ar não atrasa a subida
+    public synchronized void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(VirtualThreads.threadFactory("replica-lag", false));
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void check() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> {
+            long lag = lag(name, dataSource);
+            Long previous = lags.put(name, lag);
+            boolean ok = lag != UNKNOWN_LAG && lag <= maxLagSeconds;
+            boolean wasOk = previous != null && previous != UNKNOWN_LAG && previous <= maxLagSeconds;
+            if (ok) healthy.add(name);
+            if (previous != null && ok != wasOk) {
+                logger.warn("Replica {} {}, lag {}s", name, ok ? "is back in rotation" : "left rotation", lag);
+            }
+        });
+        eligible = List.copyOf(healthy);
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getEligibleReplicas() {
+        return eligible;
+    }
+
+    //Atraso medido por réplica em segundos, -1 quando desconhecido
+    public Map<String, Long> getLags() {
+        return Map.copyOf(lags);
+    }
+
+    private long lag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            //Sem linhas: o servidor não é uma réplica (ex: o próprio primário apontado como réplica em desenvolvimento)
+            if (!result.next()) return 0;
+            long lag = hasColumn(result, MYSQL_LAG_COLUMN) ? result.getLong(MYSQL_LAG_COLUMN) : result.getLong(1);
+            return result.wasNull() ? UNKNOWN_LAG : lag;
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("Could not read the lag of replica {}: {}", name, e.getMessage());
+            return UNKNOWN_LAG;
+        }
+    }
+
+    private static boolean hasColumn(ResultSet result, String column) throws SQLException {
+        var metaData = result.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(metaData.getColumnLabel(i))) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close a replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AuthenticationOverloadedException extends ControlFlowException {
+    private static final long serialVersionUID = 1L;
+
+    public AuthenticationOverloadedException() {
+        super("Too many sign in attempts, please try again later!");
+    }
+    public AuthenticationOverloadedException(String ex) {
+        super(ex);
+    }
+
+}
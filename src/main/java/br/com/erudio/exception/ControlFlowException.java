@@ -0,0 +1,16 @@
+package br.com.erudio.exception;
+
+/**
+ * Base das exceções que representam resultados esperados da API (id inexistente, cursor inválido, ETag desatualizado...),
+ * e não falhas. Elas são criadas sem stack trace e sem suporte a exceções suprimidas: o fillInStackTrace percorre a pilha
+ * inteira (dezenas de frames do Spring e do Tomcat) e, com bots pedindo ids que não existem, era o que mais consumia CPU
+ * numa resposta 404. O handler só usa a mensagem, então nada se perde na resposta.
+ */
+public abstract class ControlFlowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected ControlFlowException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ImportOverloadedException extends ControlFlowException {
+    private static final long serialVersionUID = 1L;
+
+    public ImportOverloadedException() {
+        super("Too many imports running, try again later!");
+    }
+    public ImportOverloadedException(String ex) {
+        super(ex);
+    }
+
+}
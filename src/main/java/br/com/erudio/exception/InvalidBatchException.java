@@ -0,0 +1,17 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBatchException extends ControlFlowException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBatchException() {
+        super("Invalid batch request!");
+    }
+    public InvalidBatchException(String ex) {
+        super(ex);
+    }
+
+}
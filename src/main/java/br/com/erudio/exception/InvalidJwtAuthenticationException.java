@@ -12,4 +12,10 @@ public class InvalidJwtAuthenticationException extends AuthenticationException {
     public InvalidJwtAuthenticationException(String msg) {
         super(msg);
     }
+
+    //Token vencido ou inválido é um resultado esperado, como as ControlFlowException: não vale montar a stack trace
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
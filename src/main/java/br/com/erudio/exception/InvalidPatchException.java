@@ -0,0 +1,17 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends ControlFlowException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPatchException() {
+        super("Invalid patch document!");
+    }
+    public InvalidPatchException(String ex) {
+        super(ex);
+    }
+
+}
@@ -0,0 +1,17 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends ControlFlowException {
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException() {
+        super("The record was changed by another request, reload it and try again!");
+    }
+    public PreconditionFailedException(String ex) {
+        super(ex);
+    }
+
+}
@@ -1,54 +1,66 @@
 package br.com.erudio.exception.handler;
 
-import br.com.erudio.exception.ExceptionResponse;
+import br.com.erudio.exception.AuthenticationOverloadedException;
+import br.com.erudio.exception.ImportOverloadedException;
+import br.com.erudio.exception.InvalidBatchException;
+import br.com.erudio.exception.InvalidCursorException;
 import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.exception.InvalidPatchException;
+import br.com.erudio.exception.PreconditionFailedException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-import java.util.Date;
-
 /**
  * ControllerAdvice = usamos ela sempre que precisamos concentrar algum tratamento que seria espalhado em todos os controller. Com isso toda vez que um controller lance uma exceção, caso ninguem fornça uma exceção mais espeicifica vai cair no tratamento do controllewr advice.
+ * As respostas seguem o RFC 7807 (application/problem+json), com os corpos montados e guardados pelo ProblemResponses.
  */
 @ControllerAdvice
 @RestController
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final ProblemResponses problems = new ProblemResponses();
+
+    //Erros inesperados não entram no cache: a mensagem pode ser qualquer coisa
     @ExceptionHandler(Exception.class)
-    public final ResponseEntity<ExceptionResponse> handleAllExceptions(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(
-                new Date(), ex.getMessage(), request.getDescription(false)
-        );
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    public final ResponseEntity<byte[]> handleAllExceptions(Exception ex) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(ProblemResponses.write(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage()));
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public final ResponseEntity<ExceptionResponse> handleNotFoundExceptions(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(
-                new Date(), ex.getMessage(), request.getDescription(false)
-        );
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
+    public final ResponseEntity<byte[]> handleNotFoundExceptions(Exception ex) {
+        return problems.response(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
-    @ExceptionHandler(RequiredObjectIsNullException.class)
-    public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(
-                new Date(), ex.getMessage(), request.getDescription(false)
-        );
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler({RequiredObjectIsNullException.class, InvalidCursorException.class, InvalidBatchException.class, InvalidPatchException.class})
+    public final ResponseEntity<byte[]> handleBadRequestExceptions(Exception ex) {
+        return problems.response(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
+
     @ExceptionHandler(InvalidJwtAuthenticationException.class)
-    public final ResponseEntity<ExceptionResponse> handleInvalidJwtAuthenticationException(Exception ex, WebRequest request) {
-        ExceptionResponse exceptionResponse = new ExceptionResponse(
-                new Date(), ex.getMessage(), request.getDescription(false)
-        );
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.FORBIDDEN);
+    public final ResponseEntity<byte[]> handleInvalidJwtAuthenticationException(Exception ex) {
+        return problems.response(HttpStatus.FORBIDDEN, ex.getMessage());
+    }
+
+    @ExceptionHandler({AuthenticationOverloadedException.class, ImportOverloadedException.class})
+    public final ResponseEntity<byte[]> handleServiceUnavailableExceptions(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problems.body(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public final ResponseEntity<byte[]> handlePreconditionFailedException(Exception ex) {
+        return problems.response(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
     }
 }
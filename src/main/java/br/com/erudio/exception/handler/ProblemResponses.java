@@ -0,0 +1,74 @@
+package br.com.erudio.exception.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Corpos de erro no formato RFC 7807 (application/problem+json): type, title, status e detail.
+ * O JSON é montado à mão e devolvido como byte[], que o Spring escreve pelo ByteArrayHttpMessageConverter, sem passar
+ * pela introspecção do Jackson. Como quase todas as mensagens são fixas ("No records found for this ID!"), cada par
+ * status + mensagem é montado uma vez e os mesmos bytes são reaproveitados. O cache tem limite porque algumas mensagens
+ * levam texto do cliente (o path de um JSON Patch, por exemplo); passado o limite, o corpo é montado a cada vez.
+ * O campo instance fica de fora para o corpo não depender da requisição; o X-Request-Id da resposta liga o erro ao log.
+ */
+public class ProblemResponses {
+
+    static final int MAX_CACHED_BODIES = 512;
+
+    private record Key(int status, String detail) {
+    }
+
+    private final ConcurrentMap<Key, byte[]> bodies = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> response(HttpStatus status, String detail) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(body(status, detail));
+    }
+
+    public byte[] body(HttpStatus status, String detail) {
+        Key key = new Key(status.value(), detail);
+        byte[] body = bodies.get(key);
+        if (body == null) {
+            body = write(status, detail);
+            if (bodies.size() < MAX_CACHED_BODIES) bodies.putIfAbsent(key, body);
+        }
+        return body;
+    }
+
+    public static byte[] write(HttpStatus status, String detail) {
+        StringBuilder json = new StringBuilder(96 + (detail != null ? detail.length() : 0));
+        json.append("{\"type\":\"about:blank\",\"title\":");
+        quote(json, status.getReasonPhrase());
+        json.append(",\"status\":").append(status.value());
+        if (detail != null) {
+            json.append(",\"detail\":");
+            quote(json, detail);
+        }
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.erudio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Uma fase da autenticação: "jwt" é o JwtTokenFilter inteiro (resolve, verifica e monta a autenticação do token) e
+ * "load-user" é o UserService.loadUserByUsername, que pode aparecer dentro do primeiro.
+ */
+@Name("br.com.erudio.Auth")
+@Label("Authentication")
+@Description("Time spent authenticating a request")
+@Category({"Erudio", "Security"})
+@Enabled(false)
+@StackTrace(false)
+public class AuthEvent extends Event {
+
+    public static final String JWT = "jwt";
+    public static final String LOAD_USER = "load-user";
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Authenticated")
+    private boolean authenticated;
+
+    public void commit(String phase, boolean authenticated) {
+        if (!shouldCommit()) return;
+        this.phase = phase;
+        this.authenticated = authenticated;
+        commit();
+    }
+}
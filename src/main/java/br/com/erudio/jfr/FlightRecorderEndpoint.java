@@ -0,0 +1,140 @@
+package br.com.erudio.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gravação do JFR sob demanda, em /actuator/jfr (só para usuários com a permissão ADMIN):
+ * POST   /actuator/jfr         liga os eventos da aplicação e começa a gravar. Corpo opcional:
+ *                              {"settings": "default" ou "profile" para incluir os eventos do JDK, "maxAge": "10m", "threshold": "5ms"}
+ * GET    /actuator/jfr         estado da gravação
+ * GET    /actuator/jfr/dump    arquivo .jfr com o que foi gravado até agora (abre no JDK Mission Control ou com "jfr print")
+ * DELETE /actuator/jfr         para a gravação; o dump continua disponível até o próximo POST
+ * Os eventos da aplicação são @Enabled(false): fora de uma gravação, cada ponto de emissão custa só uma leitura de flag.
+ * Com default ou profile, os eventos do JDK que copiam variáveis de ambiente, propriedades de sistema e linhas de comando
+ * (onde costumam estar senhas e chaves) ficam sempre desligados, para o arquivo baixado não levar credenciais.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    static final List<Class<? extends Event>> EVENTS = List.of(RequestEvent.class, AuthEvent.class, QueryEvent.class,
+            MappingEvent.class, SerializationEvent.class);
+
+    static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty",
+            "jdk.InitialSecurityProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+
+    private Recording recording;
+    private Path dump;
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Duration maxAge, @Nullable Duration threshold) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running, stop it first");
+        }
+        close();
+        recording = settings == null ? new Recording() : new Recording(configuration(settings));
+        for (String event : SENSITIVE_EVENTS) recording.disable(event);
+        recording.setName("erudio");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge != null ? maxAge : DEFAULT_MAX_AGE);
+        for (Class<? extends Event> event : EVENTS) {
+            recording.enable(event).withThreshold(threshold != null ? threshold : Duration.ZERO);
+        }
+        recording.start();
+        logger.info("Flight recording started with settings {}", settings);
+        return status();
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("stopTime", recording.getStopTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String action) {
+        if (!"dump".equals(action) || recording == null) return null;
+        try {
+            //Um arquivo novo por dump: quem ainda está baixando o anterior continua lendo o arquivo já apagado
+            Path file = Files.createTempFile("erudio-", ".jfr");
+            recording.dump(file);
+            deleteDump();
+            dump = file;
+            return new FileSystemResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Flight recording stopped");
+        }
+        return status();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteDump();
+    }
+
+    private void deleteDump() {
+        if (dump == null) return;
+        try {
+            Files.deleteIfExists(dump);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", dump, e.getMessage());
+        }
+        dump = null;
+    }
+
+    private static Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings " + settings + ", use default or profile", e);
+        }
+    }
+}
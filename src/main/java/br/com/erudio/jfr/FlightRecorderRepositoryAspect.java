@@ -0,0 +1,78 @@
+package br.com.erudio.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Emite um QueryEvent para cada chamada aos repositórios JPA: as interfaces do Spring Data (inclusive os métodos herdados,
+ * como findById e saveAll) e o PartialUpdateRepository.
+ * Os repositórios reativos ficam de fora pelo mesmo motivo do ServiceMetricsAspect: o método só monta o Flux/Mono.
+ */
+@Aspect
+@Component
+public class FlightRecorderRepositoryAspect {
+
+    private static final String REPOSITORY_PACKAGE = "br.com.erudio.repository";
+
+    //O alvo é o proxy do Spring Data, cuja classe não diz qual repositório ele implementa
+    private final ConcurrentMap<Class<?>, String> names = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || execution(public * br.com.erudio.repository.PartialUpdateRepository.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        var event = new QueryEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit(repositoryName(joinPoint.getTarget()), joinPoint.getSignature().getName(),
+                        ids((MethodSignature) joinPoint.getSignature(), joinPoint.getArgs()), rows(result));
+            }
+        }
+    }
+
+    private String repositoryName(Object target) {
+        return names.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (candidate.getPackageName().equals(REPOSITORY_PACKAGE)) return candidate.getSimpleName();
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+
+    //Coleções de ids (deletePeople, findAllById) contam pelo tamanho, e um parâmetro chamado id conta 1
+    static int ids(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        int ids = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Collection<?> collection) ids += collection.size();
+            else if (args[i] != null && names != null && "id".equals(names[i])) ids++;
+        }
+        return ids;
+    }
+
+    static int rows(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        //Consultas @Modifying devolvem as linhas afetadas
+        if (result instanceof Integer affected) return affected;
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) return -1;
+        return 1;
+    }
+}
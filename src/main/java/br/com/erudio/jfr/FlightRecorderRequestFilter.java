@@ -0,0 +1,45 @@
+package br.com.erudio.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emite o RequestEvent de cada requisição e fecha o SerializationEvent aberto pelo FlightRecorderSerializationAdvice.
+ * Roda antes da cadeia do Spring Security para que o tempo do JwtTokenFilter fique dentro da requisição.
+ * Com os eventos desligados (o padrão), o custo é a criação de um objeto que o JIT elimina e uma leitura de flag.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FlightRecorderRequestFilter extends OncePerRequestFilter {
+
+    static final String SERIALIZATION_ATTRIBUTE = FlightRecorderRequestFilter.class.getName() + ".serialization";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var event = new RequestEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(SERIALIZATION_ATTRIBUTE) instanceof SerializationEvent serialization) {
+                serialization.commit();
+            }
+            if (event.shouldCommit()) {
+                //O padrão mapeado agrupa /api/person/v1/1 e /api/person/v1/2; o Spring só o conhece depois do handler
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.commit(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                        response.getStatus(), response.getContentType());
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.erudio.jfr;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+
+/**
+ * Abre o SerializationEvent logo antes do corpo ser escrito. O evento fica num atributo da requisição e é gravado pelo
+ * FlightRecorderRequestFilter quando a resposta termina.
+ * Precedência máxima para rodar antes do ResponseBodyCacheAdvice, que num miss serializa o corpo dentro do beforeBodyWrite.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FlightRecorderSerializationAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        var event = new SerializationEvent();
+        if (body == null || !event.isEnabled() || !(request instanceof ServletServerHttpRequest servletRequest)) return body;
+
+        //Para listas e páginas, o tipo é o dos itens: PagedModel<EntityModel<PersonVO>> vira PersonVO
+        Object content = body instanceof CollectionModel<?> model ? model.getContent() : body;
+        int count = 1;
+        if (content instanceof Collection<?> items) {
+            count = items.size();
+            content = items.isEmpty() ? null : items.iterator().next();
+        }
+        if (content instanceof EntityModel<?> model) content = model.getContent();
+
+        event.describe(content != null ? content.getClass().getSimpleName() : null, String.valueOf(selectedContentType), count);
+        event.begin();
+        servletRequest.getServletRequest().setAttribute(FlightRecorderRequestFilter.SERIALIZATION_ATTRIBUTE, event);
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.erudio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Uma conversão do DozerMapper, de um objeto ou de uma lista inteira.
+ */
+@Name("br.com.erudio.Mapping")
+@Label("Object Mapping")
+@Description("A DozerMapper conversion between an entity or row and a value object")
+@Category({"Erudio", "Mapping"})
+@Enabled(false)
+@StackTrace(false)
+public class MappingEvent extends Event {
+
+    @Label("Source Type")
+    private String source;
+
+    @Label("Target Type")
+    private String target;
+
+    @Label("Objects")
+    private int count;
+
+    @Label("Generated")
+    @Description("Whether the MapStruct generated conversion was used instead of Dozer")
+    private boolean generated;
+
+    public void commit(Class<?> source, Class<?> target, int count, boolean generated) {
+        if (!shouldCommit()) return;
+        this.source = source == null ? null : source.getSimpleName();
+        this.target = target.getSimpleName();
+        this.count = count;
+        this.generated = generated;
+        commit();
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.erudio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Uma chamada a um repositório JPA, da chamada até o retorno (inclui o flush e a espera por conexão do pool).
+ */
+@Name("br.com.erudio.Query")
+@Label("Repository Query")
+@Description("A call to a JPA repository method")
+@Category({"Erudio", "Database"})
+@Enabled(false)
+@StackTrace(false)
+public class QueryEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Ids")
+    @Description("Number of ids passed to the query, 0 when it does not filter by id")
+    private int ids;
+
+    @Label("Rows")
+    @Description("Rows returned, or affected by a modifying query; -1 when unknown, e.g. a Stream")
+    private int rows;
+
+    public void commit(String repository, String method, int ids, int rows) {
+        if (!shouldCommit()) return;
+        this.repository = repository;
+        this.method = method;
+        this.ids = ids;
+        this.rows = rows;
+        commit();
+    }
+}
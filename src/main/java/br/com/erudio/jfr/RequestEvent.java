@@ -0,0 +1,44 @@
+package br.com.erudio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Uma requisição HTTP inteira, do primeiro filtro até a resposta escrita. Os eventos das outras fases (autenticação,
+ * consultas, mapeamento e serialização) acontecem na mesma thread e dentro do intervalo deste.
+ */
+@Name("br.com.erudio.Request")
+@Label("HTTP Request")
+@Description("An HTTP request, from the first servlet filter until the response is written")
+@Category({"Erudio", "Web"})
+@Enabled(false)
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("URI Pattern")
+    @Description("The mapped pattern, e.g. /api/person/v1/{id}, or the raw URI when no handler matched")
+    private String uri;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Media Type")
+    private String mediaType;
+
+    public void commit(String method, String uri, int status, String mediaType) {
+        if (!shouldCommit()) return;
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.mediaType = mediaType;
+        commit();
+    }
+}
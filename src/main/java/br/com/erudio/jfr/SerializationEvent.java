@@ -0,0 +1,40 @@
+package br.com.erudio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A escrita do corpo da resposta pelo HttpMessageConverter escolhido na negociação de conteúdo. Começa no
+ * primeiro ResponseBodyAdvice, antes do ResponseBodyCacheAdvice (que serializa ele mesmo num miss), e termina quando a
+ * cadeia de filtros volta, então também cobre a escrita no socket.
+ */
+@Name("br.com.erudio.Serialization")
+@Label("Response Serialization")
+@Description("Writing a response body with the negotiated message converter")
+@Category({"Erudio", "Web"})
+@Enabled(false)
+@StackTrace(false)
+public class SerializationEvent extends Event {
+
+    @Label("Resource Type")
+    private String resource;
+
+    @Label("Media Type")
+    private String mediaType;
+
+    @Label("Objects")
+    @Description("Items in the body when it is a collection or a page, otherwise 1")
+    private int count;
+
+    //O corpo é conhecido quando o evento começa, mas só é gravado quando a escrita termina
+    public void describe(String resource, String mediaType, int count) {
+        this.resource = resource;
+        this.mediaType = mediaType;
+        this.count = count;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.erudio.logging;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Leva o MDC (o requestId do RequestIdFilter) da thread que agenda a tarefa para a thread do pool que a executa, para que
+ * os logs do hash de senha, da importação e da exportação em streaming continuem ligados à requisição.
+ * Como bean, o Spring Boot aplica o decorator no applicationTaskExecutor. Os pools próprios (PasswordHashingExecutor e
+ * PersonImportService) usam os métodos wrap. O MDC anterior da thread do pool é restaurado no fim da tarefa.
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return wrap(runnable);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            restore(context);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            restore(context);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Map<String, String> context) {
+        if (context == null) MDC.clear();
+        else MDC.setContextMap(context);
+    }
+}
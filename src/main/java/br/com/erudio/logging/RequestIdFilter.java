@@ -0,0 +1,59 @@
+package br.com.erudio.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Coloca um id de requisição no MDC (chave requestId) para que todas as linhas de log da requisição possam ser ligadas,
+ * inclusive as escritas depois pela thread do AsyncAppender, que copia o MDC no momento do log.
+ * Reaproveita o X-Request-Id recebido (de um proxy ou do cliente) quando ele é curto e só tem caracteres seguros; senão
+ * gera um id de 16 dígitos hexadecimais. O id volta no header de resposta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = requestId(request.getHeader(HEADER));
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    //Mais barato que UUID.randomUUID, que usa o SecureRandom, e suficiente para correlacionar logs
+    public static String requestId(String received) {
+        if (received != null && !received.isEmpty() && received.length() <= MAX_LENGTH && isSafe(received)) return received;
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    //O id vai para o log e para um header: nada de quebra de linha nem caracteres de controle
+    private static boolean isSafe(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == ':')) return false;
+        }
+        return true;
+    }
+}
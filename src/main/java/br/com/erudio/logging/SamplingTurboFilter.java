@@ -0,0 +1,62 @@
+package br.com.erudio.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Amostragem de logs por logger, configurada em logging.sampling.rates (logback-spring.xml) no formato
+ * "br.com.erudio.service=100,br.com.erudio.service.UserService=10": uma em cada N chamadas abaixo de WARN é registrada.
+ * Vale o prefixo mais longo, e N = 1 desliga a amostragem daquele logger. WARN e ERROR nunca são descartados.
+ * Um TurboFilter roda antes do Logback criar o LoggingEvent; com mensagens parametrizadas, um log descartado não formata
+ * nem aloca nada, custa a busca do logger no mapa e um número aleatório.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Integer> rates = new HashMap<>();
+    //Taxa já resolvida por nome de logger, para não percorrer os prefixos a cada chamada
+    private final ConcurrentMap<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    public void setRates(String rates) {
+        this.rates.clear();
+        resolved.clear();
+        if (rates == null) return;
+        for (String entry : rates.split(",")) {
+            if (entry.isBlank()) continue;
+            int separator = entry.indexOf('=');
+            if (separator < 1) throw new IllegalArgumentException("Invalid log sampling rate " + entry + ", expected logger=N");
+            int rate = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (rate < 1) throw new IllegalArgumentException("Invalid log sampling rate " + entry + ", N must be at least 1");
+            this.rates.put(entry.substring(0, separator).trim(), rate);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        //isInfoEnabled() e afins chegam aqui com format null: só a chamada que realmente loga é amostrada
+        if (rates.isEmpty() || level == null || format == null || level.isGreaterOrEqual(Level.WARN)) return FilterReply.NEUTRAL;
+        Integer rate = resolved.get(logger.getName());
+        if (rate == null) rate = resolved.computeIfAbsent(logger.getName(), this::rateFor);
+        if (rate == 1) return FilterReply.NEUTRAL;
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private int rateFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Integer rate = rates.get(name);
+            if (rate != null) return rate;
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) return 1;
+            name = name.substring(0, dot);
+        }
+    }
+}
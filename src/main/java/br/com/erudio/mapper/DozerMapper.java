@@ -1,24 +1,80 @@
 package br.com.erudio.mapper;
 
+import br.com.erudio.data.projection.BookRow;
+import br.com.erudio.data.projection.PersonRow;
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.data.vo.v2.PersonVOV2;
+import br.com.erudio.jfr.MappingEvent;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class DozerMapper {
 
     private static Mapper mapper = DozerBeanMapperBuilder.buildDefault();
 
+    //Conversões geradas pelo MapStruct (EntityMapper), indexadas por classe de origem e depois por classe de destino.
+    //Os pares que não estiverem registrados aqui continuam passando pelo Dozer.
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> generated = new HashMap<>();
+
+    static {
+        EntityMapper entityMapper = EntityMapper.INSTANCE;
+        register(Person.class, PersonVO.class, entityMapper::toPersonVO);
+        register(PersonVO.class, Person.class, entityMapper::toPerson);
+        register(Book.class, BookVO.class, entityMapper::toBookVO);
+        register(BookVO.class, Book.class, entityMapper::toBook);
+        register(Person.class, PersonVOV2.class, entityMapper::toPersonVOV2);
+        register(PersonVOV2.class, Person.class, entityMapper::toPerson);
+        register(PersonRow.class, PersonVO.class, entityMapper::toPersonVO);
+        register(BookRow.class, BookVO.class, entityMapper::toBookVO);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> void register(Class<O> origin, Class<D> destination, Function<O, D> conversion) {
+        generated.computeIfAbsent(origin, key -> new HashMap<>())
+                .put(destination, (Function<Object, Object>) conversion);
+    }
+
+    @SuppressWarnings("unchecked")
     public static <O, D> D parseObject(O origin, Class<D> destination) {
-        return mapper.map(origin, destination);
+        var event = new MappingEvent();
+        event.begin();
+        Function<Object, Object> conversion = conversion(origin.getClass(), destination);
+        D result = conversion != null ? (D) conversion.apply(origin) : mapper.map(origin, destination);
+        event.commit(origin.getClass(), destination, 1, conversion != null);
+        return result;
     }
 
+    //Um evento para a lista inteira, e não um por item
+    @SuppressWarnings("unchecked")
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
-        List<D> destinationObjects = new ArrayList<D>();
+        var event = new MappingEvent();
+        event.begin();
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
+        Class<?> originClass = null;
+        Function<Object, Object> conversion = null;
         for (O o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+            //As listas vêm de uma consulta só, então a conversão da classe do primeiro item serve para os outros
+            if (o.getClass() != originClass) {
+                originClass = o.getClass();
+                conversion = conversion(originClass, destination);
+            }
+            destinationObjects.add(conversion != null ? (D) conversion.apply(o) : mapper.map(o, destination));
         }
+        event.commit(originClass, destination, origin.size(), conversion != null);
         return destinationObjects;
     }
+
+    private static Function<Object, Object> conversion(Class<?> origin, Class<?> destination) {
+        Map<Class<?>, Function<Object, Object>> conversions = generated.get(origin);
+        return conversions != null ? conversions.get(destination) : null;
+    }
 }
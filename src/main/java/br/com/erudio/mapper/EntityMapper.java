@@ -0,0 +1,54 @@
+package br.com.erudio.mapper;
+
+import br.com.erudio.data.projection.BookRow;
+import br.com.erudio.data.projection.PersonRow;
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.data.vo.v2.PersonVOV2;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Mapeamentos gerados em tempo de compilação pelo MapStruct. O processador de anotações gera a classe EntityMapperImpl
+ * com chamadas diretas de getters e setters, sem reflexão em tempo de execução como o Dozer faz.
+ * O campo "key" dos VOs continua sendo mapeado para o "id" das entidades, seguindo o @Mapping("id") usado com o Dozer.
+ * A "version" dos VOs é só a versão esperada pelo cliente: nunca é copiada para a entidade, quem controla é o @Version.
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface EntityMapper {
+
+    EntityMapper INSTANCE = Mappers.getMapper(EntityMapper.class);
+
+    @Mapping(target = "key", source = "id")
+    @Mapping(target = "version", ignore = true)
+    PersonVO toPersonVO(Person person);
+
+    @Mapping(target = "id", source = "key")
+    @Mapping(target = "version", ignore = true)
+    Person toPerson(PersonVO vo);
+
+    @Mapping(target = "key", source = "id")
+    @Mapping(target = "version", ignore = true)
+    BookVO toBookVO(Book book);
+
+    @Mapping(target = "id", source = "key")
+    @Mapping(target = "version", ignore = true)
+    Book toBook(BookVO vo);
+
+    PersonVOV2 toPersonVOV2(Person person);
+
+    //Linhas das consultas de listagem (SELECT new ...), convertidas sem passar por uma entidade
+    @Mapping(target = "key", source = "id")
+    @Mapping(target = "version", ignore = true)
+    PersonVO toPersonVO(PersonRow row);
+
+    @Mapping(target = "key", source = "id")
+    @Mapping(target = "version", ignore = true)
+    BookVO toBookVO(BookRow row);
+
+    Person toPerson(PersonVOV2 vo);
+}
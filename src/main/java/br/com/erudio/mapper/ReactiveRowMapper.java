@@ -0,0 +1,44 @@
+package br.com.erudio.mapper;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import io.r2dbc.spi.Readable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Conversão das linhas lidas pelo R2DBC direto para os VOs. No caminho reativo não existe entidade JPA nem contexto de
+ * persistência, então as colunas são lidas uma a uma, do mesmo jeito que o EntityMapper faz com os getters das entidades.
+ */
+public class ReactiveRowMapper {
+
+    public static final String PERSON_COLUMNS = "id, first_name, last_name, address, gender, enabled";
+    public static final String BOOK_COLUMNS = "id, author, launch_date, price, title";
+
+    public static PersonVO toPersonVO(Readable row) {
+        PersonVO vo = new PersonVO();
+        vo.setKey(row.get("id", Long.class));
+        vo.setFirstName(row.get("first_name", String.class));
+        vo.setLastName(row.get("last_name", String.class));
+        vo.setAddress(row.get("address", String.class));
+        vo.setGender(row.get("gender", String.class));
+        vo.setEnabled(row.get("enabled", Boolean.class));
+        return vo;
+    }
+
+    public static BookVO toBookVO(Readable row) {
+        BookVO vo = new BookVO();
+        vo.setKey(row.get("id", Long.class));
+        vo.setAuthor(row.get("author", String.class));
+        //Mesmo fuso (UTC) usado pelo serverTimezone da conexão JDBC
+        LocalDateTime launchDate = row.get("launch_date", LocalDateTime.class);
+        vo.setLaunchDate(launchDate == null ? null : Date.from(launchDate.toInstant(ZoneOffset.UTC)));
+        BigDecimal price = row.get("price", BigDecimal.class);
+        vo.setPrice(price == null ? null : price.doubleValue());
+        vo.setTitle(row.get("title", String.class));
+        return vo;
+    }
+}
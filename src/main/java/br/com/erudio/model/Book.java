@@ -1,6 +1,9 @@
 package br.com.erudio.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -10,12 +13,20 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "book")
+//O UPDATE gerado pelo Hibernate leva só as colunas que mudaram, não todas
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
 public class Book implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    //Com IDENTITY o Hibernate precisa executar cada INSERT na hora para saber o id, o que impede o batch de JDBC.
+    //O gerador pooled reserva blocos de 50 ids na tabela book_seq (o MySQL não tem sequence) e os INSERTs vão juntos no flush.
+    //O allocationSize precisa ser igual ao incremento usado na migration V16
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false, length = 150)
     private String author;
@@ -27,6 +38,11 @@ public class Book implements Serializable {
     @Column(nullable = false, length = 250)
     private String title;
 
+    //Versão usada no lock otimista e nos ETags. Primitivo para o Spring Data continuar decidindo entre persist e merge pelo id
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Book (){}
 
     public Long getId() {
@@ -69,6 +85,14 @@ public class Book implements Serializable {
         this.title = title;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,18 +1,29 @@
 package br.com.erudio.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.util.Objects;
 
 @Entity
 @Table(name = "person")
+//O UPDATE gerado pelo Hibernate leva só as colunas que mudaram, não todas
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "person")
 public class Person implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    //Com IDENTITY o Hibernate precisa executar cada INSERT na hora para saber o id, o que impede o batch de JDBC.
+    //O gerador pooled reserva blocos de 50 ids na tabela person_seq (o MySQL não tem sequence) e os INSERTs vão juntos no flush.
+    //O allocationSize precisa ser igual ao incremento usado na migration V16
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "person_seq", allocationSize = 50)
     private Long id;
     @Column(name = "first_name", nullable = false, length = 80)
     private String firstName;
@@ -25,6 +36,11 @@ public class Person implements Serializable {
     @Column(nullable = false)
     private Boolean enabled;
 
+    //Versão usada no lock otimista e nos ETags. Primitivo para o Spring Data continuar decidindo entre persist e merge pelo id
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Person() {
     }
 
@@ -76,6 +92,14 @@ public class Person implements Serializable {
         this.enabled = enabled;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
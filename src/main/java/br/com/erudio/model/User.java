@@ -1,6 +1,8 @@
 package br.com.erudio.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -12,6 +14,8 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails, Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -36,6 +40,8 @@ public class User implements UserDetails, Serializable {
 
     //Agora vamos mapear a classe do meio que vai interligar com Permission.
     //Uso EAGER porque carreguei user e tbm carrego suas permissões(Buscou o usuário, traz tbm suas permissões)
+    //A coleção tem região própria no cache de segundo nível (user-permissions), guardando só os ids das permissões
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-permissions")
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_permission", joinColumns = {@JoinColumn (name = "id_user")},
     inverseJoinColumns = {@JoinColumn (name = "id_permission")})
@@ -1,9 +1,68 @@
 package br.com.erudio.repository;
 
+import br.com.erudio.data.projection.BookRow;
 import br.com.erudio.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    //Os DELETEs por id são SQL nativo sincronizado só com esse espaço, para o Hibernate não invalidar a região book inteira
+    //do cache de segundo nível: o service tira do cache só os ids afetados, como no PersonRepository.DML_SPACE
+    String DML_SPACE = "book_dml";
+
+    //Projeção das listagens: as colunas vão direto para um BookRow, sem criar entidades gerenciadas
+    String SELECT_ROW = "SELECT new br.com.erudio.data.projection.BookRow(b.id, b.author, b.launchDate, b.price, b.title, b.version) FROM Book b";
+
+    @Query(value = SELECT_ROW, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookRow> findAllRows(Pageable pageable);
+
+    //Consultas da paginação por keyset: retornando List o Spring Data aplica só o LIMIT do Pageable, sem o COUNT(*)
+    @Query(SELECT_ROW)
+    List<BookRow> findAllBy(Pageable pageable);
+
+    @Query(SELECT_ROW + " WHERE b.title > :title OR (b.title = :title AND b.id > :id)")
+    List<BookRow> findBooksAfter(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + " WHERE b.title < :title OR (b.title = :title AND b.id < :id)")
+    List<BookRow> findBooksBefore(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    //DELETE condicionado à versão do If-Match, sem ler o livro antes. Retorna 0 se a versão mudou ou o livro não existe
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM book WHERE id = :id AND version = :version", nativeQuery = true)
+    int deleteIfVersion(@Param("id") Long id, @Param("version") long version);
+
+    //DELETE direto pelo id: o deleteById do Spring Data lê a entidade antes de remover. Retorna 0 se o livro não existe
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM book WHERE id = :id", nativeQuery = true)
+    int deleteBook(@Param("id") Long id);
+
+    //Representação do livro logo depois de um UPDATE (o MySQL não tem UPDATE ... RETURNING), sem hidratar a entidade
+    @Query(SELECT_ROW + " WHERE b.id = :id")
+    Optional<BookRow> findRowById(@Param("id") Long id);
+
+    //Variante em lote: um único DELETE com IN para a lista de ids
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM book WHERE id IN (:ids)", nativeQuery = true)
+    int deleteBooks(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,40 @@
+package br.com.erudio.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+
+/**
+ * UPDATE montado em tempo de execução só com as colunas de um PATCH, sem ler a entidade antes.
+ * A versão é incrementada no próprio UPDATE e, quando o cliente mandou If-Match, também entra no WHERE: o número de linhas
+ * afetadas diz se a atualização aconteceu (0 = não existe ou está em outra versão). Precisa rodar dentro de uma transação.
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> int update(Class<T> entityClass, Long id, Long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(entityClass);
+        Root<T> root = update.from(entityClass);
+
+        values.forEach(update::set);
+        Path<Long> version = root.get("version");
+        update.set(version, builder.sum(version, 1L));
+
+        Predicate where = builder.equal(root.get("id"), id);
+        if (expectedVersion != null) where = builder.and(where, builder.equal(version, expectedVersion));
+        update.where(where);
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
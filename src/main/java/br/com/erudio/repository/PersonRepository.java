@@ -1,23 +1,112 @@
 package br.com.erudio.repository;
 
+import br.com.erudio.data.projection.PersonRow;
 import br.com.erudio.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long> {
 
+    //Projeção das listagens: as colunas vão direto para um PersonRow, sem criar entidades gerenciadas
+    String SELECT_ROW = "SELECT new br.com.erudio.data.projection.PersonRow(p.id, p.firstName, p.lastName, p.address, p.gender, p.enabled, p.version) FROM Person p";
+
+    //Os UPDATEs e DELETEs por id são SQL nativo sincronizado só com o espaço DML_SPACE. Em JPQL o Hibernate invalida a região
+    //person inteira do cache de segundo nível a cada comando; assim a região fica intacta e o service tira do cache só os ids
+    //afetados (EntityCacheEvictor). Nenhuma consulta cacheável lê a tabela person: se alguma passar a ler, precisa desse espaço
+    String DML_SPACE = "person_dml";
+
     //Para esse método estamos tirando a administração do spring data e por isso temos que manter o ACIT, ou seja, manter a integridade, atomicidade do banco, uma das formas é por adicionar o @Modifynd
     @Modifying
-    @Query("UPDATE Person p SET p.enabled = false WHERE p.id = :id")
-    void disablePerson(@Param("id") Long id);
+    //O UPDATE direto não incrementa a versão sozinho, e o ETag precisa mudar quando a pessoa é desabilitada
+    //Retorna o número de linhas afetadas: 0 quer dizer que a pessoa não existe
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "UPDATE person SET enabled = false, version = version + 1 WHERE id = :id", nativeQuery = true)
+    int disablePerson(@Param("id") Long id);
+
+    //Mesmo UPDATE condicionado à versão do If-Match. Retorna 0 se a versão mudou ou a pessoa não existe
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "UPDATE person SET enabled = false, version = version + 1 WHERE id = :id AND version = :version", nativeQuery = true)
+    int disablePersonIfVersion(@Param("id") Long id, @Param("version") long version);
+
+    //DELETE condicionado à versão do If-Match, sem ler a pessoa antes
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM person WHERE id = :id AND version = :version", nativeQuery = true)
+    int deleteIfVersion(@Param("id") Long id, @Param("version") long version);
+
+    //DELETE direto pelo id: o deleteById do Spring Data lê a entidade antes de remover. Retorna 0 se a pessoa não existe
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM person WHERE id = :id", nativeQuery = true)
+    int deletePerson(@Param("id") Long id);
+
+    //Variantes em lote: um único UPDATE/DELETE com IN para a lista de ids, retornando quantas linhas foram afetadas
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "UPDATE person SET enabled = false, version = version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int disablePeople(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DML_SPACE))
+    @Query(value = "DELETE FROM person WHERE id IN (:ids)", nativeQuery = true)
+    int deletePeople(@Param("ids") Collection<Long> ids);
+
+    //Representação da pessoa logo depois de um UPDATE (o MySQL não tem UPDATE ... RETURNING), sem hidratar a entidade
+    @Query(SELECT_ROW + " WHERE p.id = :id")
+    Optional<PersonRow> findRowById(@Param("id") Long id);
+
+    @Query(value = SELECT_ROW, countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<PersonRow> findAllRows(Pageable pageable);
+
+    @Query(value = SELECT_ROW + " WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))",
+            countQuery = "SELECT COUNT(p) FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
+    Page<PersonRow> findPersonsByName(@Param("firstName") String firstName, Pageable pageable);
+
+    //Busca pelo índice full-text com parser ngram (V14). O MATCH encontra os candidatos pelo índice e o LIKE só confirma o trecho exato
+    //nessas poucas linhas. Como é uma query nativa, a ordenação do Pageable precisa usar os nomes das colunas (ex: first_name)
+    @Query(value = "SELECT * FROM person p WHERE MATCH(p.first_name) AGAINST(:phrase IN BOOLEAN MODE) AND p.first_name LIKE LOWER(CONCAT('%', :firstName, '%'))",
+            countQuery = "SELECT COUNT(*) FROM person p WHERE MATCH(p.first_name) AGAINST(:phrase IN BOOLEAN MODE) AND p.first_name LIKE LOWER(CONCAT('%', :firstName, '%'))",
+            nativeQuery = true)
+    Page<Person> searchPersonsByName(@Param("phrase") String phrase, @Param("firstName") String firstName, Pageable pageable);
+
+    //Consultas da paginação por keyset: retornando List o Spring Data aplica só o LIMIT do Pageable, sem o COUNT(*)
+    @Query(SELECT_ROW)
+    List<PersonRow> findAllBy(Pageable pageable);
+
+    @Query(SELECT_ROW + " WHERE p.firstName > :firstName OR (p.firstName = :firstName AND p.id > :id)")
+    List<PersonRow> findPeopleAfter(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + " WHERE p.firstName < :firstName OR (p.firstName = :firstName AND p.id < :id)")
+    List<PersonRow> findPeopleBefore(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
 
-    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
-    Page<Person> findPersonsByName(@Param("firstName") String firstName, Pageable pageable);
+    //Consulta da exportação: lida linha a linha, sem OFFSET nem COUNT. Com fetch size Integer.MIN_VALUE o driver do MySQL
+    //entrega o resultado em streaming em vez de carregar tudo na memória. As entidades são só leitura (sem snapshot para dirty
+    //checking) e não passam pelo cache de segundo nível. O Stream precisa ser consumido dentro de uma transação e fechado no fim
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Person p WHERE (:enabled IS NULL OR p.enabled = :enabled) AND (:gender IS NULL OR p.gender = :gender) ORDER BY p.id")
+    Stream<Person> streamAll(@Param("enabled") Boolean enabled, @Param("gender") String gender);
 
 }
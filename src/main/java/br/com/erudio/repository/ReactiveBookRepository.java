@@ -0,0 +1,42 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.mapper.ReactiveRowMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura da tabela book pelo R2DBC, usadas pelo caminho reativo.
+ */
+@Repository
+public class ReactiveBookRepository {
+
+    private static final String SELECT = "SELECT " + ReactiveRowMapper.BOOK_COLUMNS + " FROM book";
+
+    @Autowired
+    DatabaseClient client;
+
+    //Sem size, todos os livros em uma única consulta, lidos em streaming
+    public Flux<BookVO> findAll(Integer page, Integer size, Sort.Direction direction) {
+        String sql = SELECT + " ORDER BY title " + direction.name() + ", id " + direction.name();
+        if (size == null) {
+            return client.sql(sql).map(ReactiveRowMapper::toBookVO).all();
+        }
+        return client.sql(sql + " LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveRowMapper::toBookVO)
+                .all();
+    }
+
+    public Mono<BookVO> findById(Long id) {
+        return client.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveRowMapper::toBookVO)
+                .one();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.mapper.ReactiveRowMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de leitura da tabela person pelo R2DBC, usadas pelo caminho reativo. As mesmas consultas do PersonRepository, mas
+ * sem bloquear uma thread: as linhas chegam como um Flux e só são lidas do banco conforme o cliente consome.
+ */
+@Repository
+public class ReactivePersonRepository {
+
+    private static final String SELECT = "SELECT " + ReactiveRowMapper.PERSON_COLUMNS + " FROM person";
+
+    @Autowired
+    DatabaseClient client;
+
+    //Sem size, todas as pessoas em uma única consulta, lidas em streaming
+    public Flux<PersonVO> findAll(Integer page, Integer size, Sort.Direction direction) {
+        String sql = SELECT + " ORDER BY first_name " + direction.name() + ", id " + direction.name();
+        if (size == null) {
+            return client.sql(sql).map(ReactiveRowMapper::toPersonVO).all();
+        }
+        return client.sql(sql + " LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveRowMapper::toPersonVO)
+                .all();
+    }
+
+    public Mono<PersonVO> findById(Long id) {
+        return client.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveRowMapper::toPersonVO)
+                .one();
+    }
+
+    //Mesma busca pelo índice full-text com parser ngram (V14) do PersonRepository.searchPersonsByName
+    public Flux<PersonVO> searchByName(String phrase, String firstName, Sort.Direction direction) {
+        return client.sql(SELECT + " WHERE MATCH(first_name) AGAINST(:phrase IN BOOLEAN MODE)"
+                        + " AND first_name LIKE LOWER(CONCAT('%', :firstName, '%'))"
+                        + " ORDER BY first_name " + direction.name() + ", id " + direction.name())
+                .bind("phrase", phrase)
+                .bind("firstName", firstName)
+                .map(ReactiveRowMapper::toPersonVO)
+                .all();
+    }
+
+    //Termos menores que o ngram não são encontrados pelo índice e continuam no LIKE
+    public Flux<PersonVO> findByName(String firstName, Sort.Direction direction) {
+        return client.sql(SELECT + " WHERE first_name LIKE LOWER(CONCAT('%', :firstName, '%'))"
+                        + " ORDER BY first_name " + direction.name() + ", id " + direction.name())
+                .bind("firstName", firstName)
+                .map(ReactiveRowMapper::toPersonVO)
+                .all();
+    }
+}
@@ -1,14 +1,26 @@
 package br.com.erudio.repository;
 
 import br.com.erudio.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    //Resultado guardado no cache de consultas do Hibernate. Qualquer escrita na tabela users invalida essa entrada
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT u FROM User u WHERE u.userName =:userName")
     User findByUsername(@Param("userName") String userName);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password =:password WHERE u.userName =:userName")
+    int updatePassword(@Param("userName") String userName, @Param("password") String password);
 }
\ No newline at end of file
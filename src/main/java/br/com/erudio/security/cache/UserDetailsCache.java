@@ -0,0 +1,60 @@
+package br.com.erudio.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache opcional dos UserDetails usados pelo JwtTokenProvider quando a autenticação é montada a partir do banco
+ * (security.jwt.token.authentication-source: database). Ele é limitado em tamanho e cada usuário expira depois do TTL, assim
+ * mudanças em enabled/accountNonLocked são percebidas em no máximo "ttl" sem ir ao banco a cada requisição.
+ * Desligado (security.user-cache.enabled: false) ele sempre chama o loader.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Value("${security.user-cache.enabled:false}")
+    private boolean enabled = false;
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long maximumSize = 10000;
+    @Value("${security.user-cache.ttl:5m}")
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    protected void init() {
+        if (enabled) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (cache == null) return loader.apply(username);
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        if (cache != null) cache.invalidate(username);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    //Estatísticas de acerto/erro do cache (hits, misses, evictions e tempo de carga)
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+}
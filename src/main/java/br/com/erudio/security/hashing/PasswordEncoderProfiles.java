@@ -0,0 +1,38 @@
+package br.com.erudio.security.hashing;
+
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Monta o DelegatingPasswordEncoder a partir dos perfis configurados em PasswordEncoderProperties.
+ * Como o DelegatingPasswordEncoder responde upgradeEncoding = true para todo hash cujo prefixo é diferente do encoding-id
+ * (inclusive os sem prefixo), o DaoAuthenticationProvider chama o UserDetailsPasswordService depois de um login com sucesso
+ * e a senha é regravada com o perfil atual.
+ */
+public final class PasswordEncoderProfiles {
+
+    private PasswordEncoderProfiles() {}
+
+    public static PasswordEncoder delegatingEncoder(PasswordEncoderProperties properties) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        properties.getProfiles().forEach((id, profile) -> encoders.put(id, pbkdf2(profile)));
+
+        PasswordEncoder legacy = encoders.get(properties.getLegacyId());
+        if (!encoders.containsKey(properties.getEncodingId()) || legacy == null) {
+            throw new IllegalStateException("Password encoder profiles " + encoders.keySet() + " must contain encoding-id "
+                    + properties.getEncodingId() + " and legacy-id " + properties.getLegacyId());
+        }
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(properties.getEncodingId(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(legacy);
+        return passwordEncoder;
+    }
+
+    public static Pbkdf2PasswordEncoder pbkdf2(PasswordEncoderProperties.Pbkdf2Profile profile) {
+        return new Pbkdf2PasswordEncoder("", profile.getSaltLength(), profile.getIterations(), profile.getAlgorithm());
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.erudio.security.hashing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perfis de hash de senha, indexados pelo id que vai no prefixo do hash gravado em users.password (ex: {pbkdf2-v2}a1b2...).
+ * Um perfil nunca deve ser alterado depois de usado, porque os hashes antigos deixariam de bater. Para mudar o custo,
+ * criamos um perfil novo e apontamos o encoding-id para ele: os hashes antigos continuam válidos e são refeitos com o perfil
+ * novo no próximo login com sucesso.
+ */
+@ConfigurationProperties("security.password-encoder")
+public class PasswordEncoderProperties {
+
+    //Perfil usado para gerar novos hashes
+    private String encodingId = "pbkdf2";
+    //Perfil usado para os hashes sem prefixo, como os inseridos pelo V8__Insert_Data_In_Users.sql
+    private String legacyId = "pbkdf2";
+    private Map<String, Pbkdf2Profile> profiles = new LinkedHashMap<>(Map.of("pbkdf2", new Pbkdf2Profile()));
+
+    public String getEncodingId() {
+        return encodingId;
+    }
+
+    public void setEncodingId(String encodingId) {
+        this.encodingId = encodingId;
+    }
+
+    public String getLegacyId() {
+        return legacyId;
+    }
+
+    public void setLegacyId(String legacyId) {
+        this.legacyId = legacyId;
+    }
+
+    public Map<String, Pbkdf2Profile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, Pbkdf2Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static class Pbkdf2Profile {
+
+        //Os valores padrão são os que o SecurityConfig sempre usou
+        private int iterations = 185000;
+        private int saltLength = 8;
+        private SecretKeyFactoryAlgorithm algorithm = SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256;
+
+        public Pbkdf2Profile() {}
+
+        public Pbkdf2Profile(int iterations, int saltLength) {
+            this.iterations = iterations;
+            this.saltLength = saltLength;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public int getSaltLength() {
+            return saltLength;
+        }
+
+        public void setSaltLength(int saltLength) {
+            this.saltLength = saltLength;
+        }
+
+        public SecretKeyFactoryAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(SecretKeyFactoryAlgorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.erudio.security.hashing;
+
+import br.com.erudio.exception.AuthenticationOverloadedException;
+import br.com.erudio.logging.MdcTaskDecorator;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado para a verificação de senha do /auth/signin. Só o encode e o matches do PasswordEncoder rodam aqui (veja
+ * PooledPasswordEncoder); as consultas do login ficam na thread da requisição.
+ * O PBKDF2 com 185000 iterações gasta dezenas de milissegundos de CPU por login. Rodando na thread do Tomcat, uma rajada de
+ * logins ocupa todas as threads e derruba também /api/person e /api/book. Aqui o trabalho vai para um número fixo de threads
+ * (security.password-hashing.pool-size) com uma fila limitada (queue-capacity). Quando a fila está cheia o login é recusado na
+ * hora com AuthenticationOverloadedException (503), e o mesmo acontece quando a espera passa do timeout.
+ * O que fica limitado é o uso de CPU e o tamanho da fila, não a ocupação da thread da requisição: ela continua bloqueada
+ * esperando o resultado, pelo tempo do hash ou até o timeout.
+ * Os contadores (fila, rejeições e latências) ficam expostos pelos getters e são publicados como métricas pelo MetricsConfig.
+ * As latências também vão para os timers security.password.hash e security.password.queue-wait, com histograma.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    @Value("${security.password-hashing.pool-size:0}")
+    private int poolSize = 0;
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity = 64;
+    @Value("${security.password-hashing.timeout:5s}")
+    private Duration timeout = Duration.ofSeconds(5);
+
+    //Sem o actuator (ex: testes unitários) os timers ficam no registry global, sem nenhum exportador
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Timer queueWaitTimer;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @PostConstruct
+    protected void init() {
+        //0 = uma thread por núcleo, o hash é CPU puro e mais threads que núcleos só aumentam a latência de cada login
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        hashTimer = Timer.builder("security.password.hash")
+                .description("Time spent hashing or verifying a password on the hashing pool, without the user lookup")
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("security.password.queue-wait")
+                .description("Time a login waited in the hashing pool queue")
+                .register(meterRegistry);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing pool started with {} threads and queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Executa a tarefa no pool e espera o resultado até o timeout configurado.
+     * Exceções lançadas pela tarefa (ex: BadCredentialsException) são repassadas como estão.
+     */
+    public <T> T execute(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(MdcTaskDecorator.wrap(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - enqueuedAt);
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashNanos.add(elapsed);
+                    hashTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthenticationOverloadedException();
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //Se ainda estiver na fila, a tarefa sai sem gastar CPU
+            future.cancel(true);
+            timedOut.increment();
+            throw new AuthenticationOverloadedException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationOverloadedException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    //Soma dos tempos de hash e de espera na fila, em nanossegundos. Divididos por getCompletedCount() dão a média.
+    public long getTotalHashNanos() {
+        return hashNanos.sum();
+    }
+
+    public long getTotalQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+}
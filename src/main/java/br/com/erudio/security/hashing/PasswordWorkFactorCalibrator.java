@@ -0,0 +1,63 @@
+package br.com.erudio.security.hashing;
+
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Mede o tempo do PBKDF2 nesta máquina e sugere o número de iterações que fica mais perto da latência alvo.
+ * O custo do PBKDF2 é linear no número de iterações, então medimos com uma quantidade conhecida, extrapolamos
+ * e conferimos a sugestão com uma segunda medição.
+ *
+ * Uso: java -cp target/classes:<classpath> br.com.erudio.security.hashing.PasswordWorkFactorCalibrator [alvo em ms] [saltLength]
+ * O resultado vai num perfil novo em security.password-encoder.profiles, que depois vira o encoding-id.
+ */
+public final class PasswordWorkFactorCalibrator {
+
+    private static final int SAMPLE_ITERATIONS = 20000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    //O OWASP não recomenda menos do que isso para PBKDF2-HMAC-SHA256 nem em máquinas lentas
+    public static final int MINIMUM_ITERATIONS = 10000;
+
+    private PasswordWorkFactorCalibrator() {}
+
+    public static int calibrate(Duration target, int saltLength) {
+        long sampleNanos = measure(SAMPLE_ITERATIONS, saltLength);
+        long proposed = Math.round((double) SAMPLE_ITERATIONS * target.toNanos() / sampleNanos);
+        //Segunda rodada com a própria sugestão, para corrigir o custo fixo que a primeira medição não separa
+        long proposedNanos = measure((int) Math.min(Integer.MAX_VALUE, Math.max(MINIMUM_ITERATIONS, proposed)), saltLength);
+        proposed = Math.round((double) Math.max(MINIMUM_ITERATIONS, proposed) * target.toNanos() / proposedNanos);
+        //Arredonda para milhares, que é como os perfis costumam ser escritos
+        return (int) Math.max(MINIMUM_ITERATIONS, Math.min(Integer.MAX_VALUE, Math.round(proposed / 1000.0) * 1000));
+    }
+
+    //Mediana do tempo de um encode() com a quantidade de iterações informada, em nanossegundos
+    public static long measure(int iterations, int saltLength) {
+        Pbkdf2PasswordEncoder encoder = new Pbkdf2PasswordEncoder("", saltLength, iterations, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) encoder.encode("calibration");
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_ROUNDS / 2];
+    }
+
+    public static void main(String[] args) {
+        Duration target = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 250);
+        int saltLength = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        int iterations = calibrate(target, saltLength);
+        long nanos = measure(iterations, saltLength);
+
+        System.out.printf("Target: %d ms, proposed iterations: %d, measured: %.1f ms (%d processors)%n",
+                target.toMillis(), iterations, nanos / 1_000_000.0, Runtime.getRuntime().availableProcessors());
+        System.out.printf("security.password-encoder.profiles.<new-id>.iterations: %d%n", iterations);
+        System.out.printf("security.password-encoder.profiles.<new-id>.salt-length: %d%n", saltLength);
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.erudio.security.hashing;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder usado pelo DaoAuthenticationProvider que manda só o encode e o matches (o PBKDF2) para o
+ * PasswordHashingExecutor. O resto do login (loadUserByUsername, o updatePassword do rehash) continua na thread da
+ * requisição, assim uma consulta lenta no banco não ocupa uma das threads de hash.
+ * O upgradeEncoding só compara o prefixo {id} e roda direto.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public PooledPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
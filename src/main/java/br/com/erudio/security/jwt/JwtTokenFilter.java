@@ -1,5 +1,7 @@
 package br.com.erudio.security.jwt;
 
+import br.com.erudio.jfr.AuthEvent;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -23,16 +25,26 @@ public class JwtTokenFilter extends GenericFilterBean {
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-        //Esse filtro vai ser executado a cada requisição. Nesse caso abaixo está obtendo o token a partir da request
-        String token = tokenProvider.resolveToken((HttpServletRequest) request);
-        //Depois de obter o token, ele valida o token
-        if (token != null && tokenProvider.validateToken(token)){
-            //Depois que ele valida, ele obtem uma autenticação
-            Authentication auth = tokenProvider.getAuthentication(token);
-            if (auth != null) {
-                //Se ele conseguir obter autenticação, então ele seta essa autenticação na sessão do spring, no securityContextHolder do spring
-                SecurityContextHolder.getContext().setAuthentication(auth);
+        var event = new AuthEvent();
+        event.begin();
+        boolean authenticated = false;
+        try {
+            //Esse filtro vai ser executado a cada requisição. Nesse caso abaixo está obtendo o token a partir da request
+            String token = tokenProvider.resolveToken((HttpServletRequest) request);
+            //Depois de obter o token, ele valida o token uma única vez e reaproveita o resultado decodificado
+            if (token != null) {
+                DecodedJWT decodedJWT = tokenProvider.verifyToken(token);
+                //Depois que ele valida, ele obtem uma autenticação
+                Authentication auth = tokenProvider.getAuthentication(decodedJWT);
+                if (auth != null) {
+                    //Se ele conseguir obter autenticação, então ele seta essa autenticação na sessão do spring, no securityContextHolder do spring
+                    SecurityContextHolder.getContext().setAuthentication(auth);
+                    authenticated = true;
+                }
             }
+        } finally {
+            //Só o trabalho do filtro, inclusive quando o token é recusado: o resto da cadeia fica fora do evento
+            event.commit(AuthEvent.JWT, authenticated);
         }
         chain.doFilter(request, response);
     }
@@ -2,16 +2,28 @@ package br.com.erudio.security.jwt;
 
 import br.com.erudio.data.vo.v1.security.TokenVO;
 import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.security.cache.UserDetailsCache;
 import com.auth0.jwt.JWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -20,6 +32,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 @Service
@@ -31,11 +44,37 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000; //1 hour
 
+    //claims: monta a autenticação direto das roles assinadas no token, sem consultar o banco
+    //database: carrega o usuário (passando pelo UserDetailsCache, se habilitado) e verifica enabled/accountNonLocked
+    @Value("${security.jwt.token.authentication-source:database}")
+    private String authenticationSource = "database";
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    //Quantos tokens já verificados ficam guardados (0 desliga o cache)
+    @Value("${security.jwt.token.verified-cache-size:1024}")
+    private long verifiedCacheSize = 1024;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    //Sem o actuator (ex: testes unitários) os timers ficam no registry global, sem nenhum exportador
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    //Criados uma vez no init: no caminho de cada requisição só há o record
+    private Timer signTimer;
+    private Timer verifyTimer;
+
     Algorithm algorithm = null;
 
+    //O JWTVerifier é imutável e thread-safe, então criamos um só e reaproveitamos em todas as requisições
+    private JWTVerifier verifier = null;
+
+    //Tokens já verificados, indexados pela assinatura (que já é um hash HMAC do header e do payload). Cada entrada expira junto com o token
+    private Cache<String, DecodedJWT> verifiedTokens = null;
+
     /**
      * Quando o spring inicia o contexto do spring, ou o spring context, que contem todos os beans, ele cria instancias dos beans anotados ou declarados na configuração,
      * processas as annotations, injeta as dependencias e faz mais outras coisas. Após ele inicializar corretamente tudo, ele chama os methods que estejam com o @PostConstruct
@@ -50,6 +89,35 @@ public class JwtTokenProvider {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         // o argoritmo ele recebe a secret encriptada, o tipo de algoritmo que usamos é HMAC256
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
+        signTimer = Timer.builder("security.jwt.sign").description("Time to sign a JWT").register(meterRegistry);
+        verifyTimer = Timer.builder("security.jwt.verify")
+                .description("Time to verify a JWT signature, tokens answered by the verified-token cache are not included")
+                .register(meterRegistry);
+        if (verifiedCacheSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheSize)
+                    .recordStats()
+                    .expireAfter(new Expiry<String, DecodedJWT>() {
+                        @Override
+                        public long expireAfterCreate(String key, DecodedJWT value, long currentTime) {
+                            long millisToExpire = value.getExpiresAt().getTime() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisToExpire));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, DecodedJWT value, long currentTime, long currentDuration) {
+                            return expireAfterCreate(key, value, currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, DecodedJWT value, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-verified-tokens");
+        }
     }
 
     public TokenVO createAccessToken(String username, List<String> roles) {
@@ -58,8 +126,8 @@ public class JwtTokenProvider {
         Date validity = new Date(now.getTime() + validityInMilliseconds);
 
         //Agora vamos criar o access token e o refresh token
-        var accessToken = getAccessToken(username, roles, now, validity);
-        var refreshToken = getRegreshToken(username, roles, now);
+        var accessToken = signTimer.record(() -> getAccessToken(username, roles, now, validity));
+        var refreshToken = signTimer.record(() -> getRegreshToken(username, roles, now));
         return new TokenVO(username, true, now, validity, accessToken, refreshToken);
     }
 
@@ -69,8 +137,8 @@ public class JwtTokenProvider {
                 refreshToken.substring("Bearer ".length());
 
         //Verificamos o token e assim conseguimos recuperar o usuário e os roles dele dentro desse JWT
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        DecodedJWT decodedJWT = verifier.verify(refreshToken);
+        String token = refreshToken;
+        DecodedJWT decodedJWT = verifyTimer.record(() -> verifier.verify(token));
 
         String username = decodedJWT.getSubject();
         List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -110,20 +178,57 @@ public class JwtTokenProvider {
     //Agora vamos implementar a parte de autenticação
     public Authentication getAuthentication(String token) {
         //Vamos decodificar o token
-        DecodedJWT decodedJWT = decodedToken(token);
-        UserDetails userDetails = this.userDetailsService
-                .loadUserByUsername(decodedJWT.getSubject());
+        return getAuthentication(verifyToken(token));
+    }
 
+    //Monta a autenticação a partir de um token já verificado, assim o filtro não precisa decodificar o mesmo token duas vezes
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
+        if ("claims".equalsIgnoreCase(authenticationSource)) {
+            //O token já foi verificado, então as roles que o getAccessToken colocou nele são confiáveis
+            List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+            List<GrantedAuthority> authorities = roles == null
+                    ? List.of()
+                    : roles.stream().map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role)).toList();
+            UserDetails principal = User.withUsername(decodedJWT.getSubject())
+                    .password("")
+                    .authorities(authorities)
+                    .build();
+            return new UsernamePasswordAuthenticationToken(principal, "", authorities);
+        }
+
+        UserDetails userDetails = userDetailsCache.get(decodedJWT.getSubject(), userDetailsService::loadUserByUsername);
+        //Nesse modo também respeitamos usuários desabilitados, bloqueados ou expirados
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked() || !userDetails.isAccountNonExpired()) {
+            return null;
+        }
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
-    private DecodedJWT decodedToken(String token) {
-        //Este método decoded precisa ler esse token e dividir em objetos que eu possa manipular através da minha aplicação
-        Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-        //Se eu não passar o algoritmo correto ele n vai conseguir abrir o token e n vai conseguir validar ele
-        JWTVerifier verifier = JWT.require(alg).build();
-        //Agora vem efetivamente a parte de decodificar o token
-        DecodedJWT decodedJWT = verifier.verify(token);
+    /**
+     * Verifica a assinatura e a expiração do token uma única vez e devolve o token decodificado. Um token sem "exp" nunca
+     * venceria, então é recusado aqui, e vale tanto para o JwtTokenFilter quanto para o validateToken.
+     * Se o mesmo token (mesma assinatura) já foi verificado e ainda não expirou, devolvemos o resultado guardado sem refazer o HMAC.
+     */
+    public DecodedJWT verifyToken(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        if (verifiedTokens != null) {
+            DecodedJWT cached = verifiedTokens.getIfPresent(signature);
+            //Comparamos o token inteiro para que uma assinatura copiada em outro payload nunca seja aceita
+            if (cached != null && cached.getToken().equals(token)) return cached;
+        }
+        DecodedJWT decodedJWT;
+        long start = System.nanoTime();
+        try {
+            decodedJWT = verifier.verify(token);
+        } catch (JWTVerificationException e) {
+            throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (decodedJWT.getExpiresAt() == null) {
+            throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
+        }
+        if (verifiedTokens != null) verifiedTokens.put(signature, decodedJWT);
         return decodedJWT;
     }
 
@@ -142,19 +247,8 @@ public class JwtTokenProvider {
 
     //Agora teremos um método para validar o Token
     public boolean validateToken(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
-        try {
-            //Verificando se ele já expirou
-            if (decodedJWT.getExpiresAt().before(new Date())) {
-                return false;
-            }
-            return true;
-        } catch (Exception e) {
-            throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
-        }
+        //O verifyToken já recusa tokens expirados, sem "exp" ou com assinatura inválida
+        DecodedJWT decodedJWT = verifyToken(token);
+        return decodedJWT.getExpiresAt().after(new Date());
     }
 }
-
-
-
-
@@ -2,6 +2,7 @@ package br.com.erudio.service;
 
 import br.com.erudio.data.vo.v1.security.AccountCredentialsVO;
 import br.com.erudio.data.vo.v1.security.TokenVO;
+import br.com.erudio.exception.AuthenticationOverloadedException;
 import br.com.erudio.repository.UserRepository;
 import br.com.erudio.security.jwt.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,7 @@ public class AuthService {
             var username = data.getUsername();
             var password = data.getPassword();
             //Aí invocamos o autenticationManager e tentamos fazer o login desses caras
+            //Só a comparação da senha (PBKDF2) vai para o pool limitado, pelo PooledPasswordEncoder
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
             //Depois que fazemos isso, acessamos o repositório e buscamos pelo username
             var user = repository.findByUsername(username);
@@ -43,6 +45,9 @@ public class AuthService {
             }
 
             return ResponseEntity.ok(tokenResponse);
+        } catch (AuthenticationOverloadedException e) {
+            //Pool saturado não é credencial inválida, o cliente deve tentar de novo mais tarde
+            throw e;
         } catch (Exception e) {
             throw new BadCredentialsException("Invalid username/password supplied!");
         }
@@ -0,0 +1,163 @@
+package br.com.erudio.service;
+
+import br.com.erudio.data.vo.v1.BatchResultVO;
+import br.com.erudio.exception.InvalidBatchException;
+import br.com.erudio.exception.PreconditionFailedException;
+import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fluxo das rotas de lote, o mesmo para pessoas e livros. Itens sem key são criados e itens com key são atualizados.
+ * Os itens válidos são gravados em uma única transação, e os INSERTs/UPDATEs vão em lote para o banco no flush.
+ * Se o banco recusar algum item, o lote inteiro sofre rollback e os itens são gravados um por um, então só o item
+ * problemático fica com erro no resultado.
+ * Um item com version só é atualizado se o registro ainda estiver nessa versão, como no PUT com If-Match; caso contrário
+ * fica com 412 no resultado.
+ * Cada service implementa os passos que dependem da entidade: validação, cópia dos campos, conversão e links.
+ */
+abstract class BatchWriter<V, E> {
+
+    private final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+    private final JpaRepository<E, Long> repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    BatchWriter(JpaRepository<E, Long> repository, TransactionTemplate transactionTemplate, int maxBatchSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    //Regras das colunas da tabela, checadas antes de ir ao banco. Devolve a mensagem de erro, ou null quando o item é válido
+    abstract String validate(V item);
+
+    abstract Long keyOf(V item);
+
+    //Versão que o cliente leu, ou null para atualizar sem checar
+    abstract Long versionOf(V item);
+
+    abstract E newEntity(V item);
+
+    abstract void copy(V item, E entity);
+
+    abstract Long entityId(E entity);
+
+    abstract long entityVersion(E entity);
+
+    //Converte a entidade gravada, invalida o cache quando é um update e adiciona os links
+    abstract V toVO(E saved, boolean created);
+
+    //Caminho de um item só, usado quando o lote é recusado: cada chamada na sua própria transação
+    abstract V create(V item);
+
+    abstract V update(V item);
+
+    List<BatchResultVO<V>> saveAll(List<V> items) {
+        if (items == null) throw new RequiredObjectIsNullException();
+        if (items.size() > maxBatchSize) throw new InvalidBatchException("A batch accepts at most " + maxBatchSize + " items!");
+
+        @SuppressWarnings("unchecked")
+        BatchResultVO<V>[] results = new BatchResultVO[items.size()];
+        List<Integer> accepted = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error == null) accepted.add(i);
+            else results[i] = BatchResultVO.failure(i, HttpStatus.BAD_REQUEST.value(), error);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveBatch(items, accepted, results));
+        } catch (DataAccessException e) {
+            logger.warn("Batch rejected by the database, saving one by one: {}", e.getMessage());
+            for (int i : accepted) {
+                results[i] = saveOne(i, items.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveBatch(List<V> items, List<Integer> accepted, BatchResultVO<V>[] results) {
+        //Um único SELECT ... IN para todos os registros que serão atualizados
+        List<Long> keys = new ArrayList<>();
+        for (int i : accepted) {
+            if (keyOf(items.get(i)) != null) keys.add(keyOf(items.get(i)));
+        }
+        Map<Long, E> existing = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (E entity : repository.findAllById(keys)) existing.put(entityId(entity), entity);
+        }
+
+        List<Integer> indexes = new ArrayList<>(accepted.size());
+        List<E> entities = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            V item = items.get(i);
+            E entity;
+            if (keyOf(item) == null) {
+                entity = newEntity(item);
+            } else {
+                entity = existing.get(keyOf(item));
+                if (entity == null) {
+                    results[i] = BatchResultVO.failure(i, HttpStatus.NOT_FOUND.value(), "No records found for this ID!");
+                    continue;
+                }
+                Long expectedVersion = versionOf(item);
+                if (expectedVersion != null && entityVersion(entity) != expectedVersion) {
+                    results[i] = BatchResultVO.failure(i, HttpStatus.PRECONDITION_FAILED.value(), new PreconditionFailedException().getMessage());
+                    continue;
+                }
+                copy(item, entity);
+            }
+            indexes.add(i);
+            entities.add(entity);
+        }
+
+        //O persist dos novos só reserva os ids no gerador pooled, os comandos são enviados juntos no flush.
+        //O flush fica dentro da transação para que um erro do banco caia aqui e não no commit. Os UPDATEs levam a versão
+        //lida no WHERE, então uma escrita concorrente depois do SELECT também derruba o lote e o item termina em 412 no caminho um por um
+        List<E> saved = repository.saveAll(entities);
+        repository.flush();
+
+        for (int n = 0; n < saved.size(); n++) {
+            int i = indexes.get(n);
+            boolean created = keyOf(items.get(i)) == null;
+            results[i] = BatchResultVO.success(i, created ? HttpStatus.CREATED.value() : HttpStatus.OK.value(), toVO(saved.get(n), created));
+        }
+    }
+
+    private BatchResultVO<V> saveOne(int index, V item) {
+        try {
+            if (keyOf(item) != null) return BatchResultVO.success(index, HttpStatus.OK.value(), update(item));
+            return BatchResultVO.success(index, HttpStatus.CREATED.value(), create(item));
+        } catch (ResourceNotFoundException e) {
+            return BatchResultVO.failure(index, HttpStatus.NOT_FOUND.value(), e.getMessage());
+        } catch (PreconditionFailedException e) {
+            return BatchResultVO.failure(index, HttpStatus.PRECONDITION_FAILED.value(), e.getMessage());
+        } catch (DataAccessException e) {
+            return BatchResultVO.failure(index, HttpStatus.CONFLICT.value(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    //Ids das rotas de lote que usam um único UPDATE/DELETE ... WHERE id IN, sem repetições
+    static Set<Long> distinctIds(List<Long> ids, int maxBatchSize) {
+        if (ids == null || ids.isEmpty()) throw new InvalidBatchException("At least one id is required!");
+        if (ids.size() > maxBatchSize) throw new InvalidBatchException("A batch accepts at most " + maxBatchSize + " items!");
+        var distinct = new LinkedHashSet<Long>(ids);
+        if (distinct.contains(null)) throw new InvalidBatchException("Ids must not be null!");
+        return distinct;
+    }
+}
@@ -1,25 +1,53 @@
 package br.com.erudio.service;
 
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.cache.ResponseBodyCache;
 import br.com.erudio.controller.BookController;
 import br.com.erudio.controller.PersonController;
+import br.com.erudio.data.projection.BookRow;
+import br.com.erudio.data.vo.v1.BatchResultVO;
+import br.com.erudio.data.vo.v1.BulkResultVO;
 import br.com.erudio.data.vo.v1.BookVO;
 import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.exception.InvalidPatchException;
+import br.com.erudio.exception.PreconditionFailedException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
 import br.com.erudio.mapper.DozerMapper;
 import br.com.erudio.mapper.custom.PersonMapper;
 import br.com.erudio.model.Book;
 import br.com.erudio.repository.BookRepository;
+import br.com.erudio.repository.PartialUpdateRepository;
+import br.com.erudio.util.ETags;
+import br.com.erudio.util.JsonPatches;
+import br.com.erudio.util.KeysetCursor;
+import br.com.erudio.util.KeysetPage;
+import br.com.erudio.util.LinkTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Map;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -27,27 +55,46 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Service
 public class BookService {
 
-    private Logger logger = Logger.getLogger(BookService.class.getName());
+    private Logger logger = LoggerFactory.getLogger(BookService.class);
+
+    //Template do link self resolvido uma única vez, em vez de um linkTo(methodOn(...)) por item
+    private static final LinkTemplate SELF_LINK = LinkTemplate.of(BookController.class, "findById", Long.class, String.class, String.class);
 
     @Autowired
     BookRepository repository;
+    //Corpos já serializados do GET por id, invalidados em toda escrita
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+    //Os UPDATEs e DELETEs diretos não passam pelo Hibernate: os ids afetados saem do cache de segundo nível por aqui
+    @Autowired
+    EntityCacheEvictor entityCacheEvictor;
 
     @Autowired
     PersonMapper mapper;
+    //Usado no lote: todos os itens válidos são gravados em uma transação só, com um único flush
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    PartialUpdateRepository partialUpdateRepository;
+    @Value("${batch.max-size:1000}")
+    int maxBatchSize;
     //Esse Assembler vai nos ajudar a criar links hateoas para nossas páginas
     @Autowired
     PagedResourcesAssembler<BookVO> assembler;
 
+    //Listagens em transação somente leitura: o Hibernate não guarda snapshot para dirty checking nem faz flush no commit
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<BookVO>> findAll(Pageable pageable) {
         logger.info("Finding all books");
 
-        var bookPage = repository.findAll(pageable);
+        //Projeção direto em BookRow, sem hidratar entidades
+        var bookPage = repository.findAllRows(pageable);
 
         //Convertendo a lista page para uma lista de VOs
         var bookVosPage = bookPage.map(p -> DozerMapper.parseObject(p, BookVO.class));
 
         //Links hateoas
-        bookVosPage.map(p -> p.add(linkTo(methodOn(BookController.class).findById(p.getKey())).withSelfRel()));
+        bookVosPage.map(p -> p.add(SELF_LINK.withSelfRel(p.getKey())));
 
         //Aqui estamos criando um link hateoas para o nosso objeto página
         Link link = linkTo(methodOn(BookController.class).findAll(
@@ -59,6 +106,60 @@ public class BookService {
         return assembler.toModel(bookVosPage, link);
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<BookVO>> findAllByCursor(String after, Integer size, Sort.Direction direction) {
+        logger.info("Finding books by cursor!");
+
+        //Paginação por keyset: em vez de OFFSET, buscamos a partir da posição (title, id) guardada no cursor
+        var cursor = KeysetCursor.decode(after);
+        boolean ascending = KeysetPage.seeksAscending(cursor, direction);
+        Pageable seek = KeysetPage.seekRequest(size, "title", ascending);
+
+        List<BookRow> rows;
+        if (cursor == null) rows = repository.findAllBy(seek);
+        else if (ascending) rows = repository.findBooksAfter(cursor.getValue(), cursor.getId(), seek);
+        else rows = repository.findBooksBefore(cursor.getValue(), cursor.getId(), seek);
+
+        var page = KeysetPage.of(rows, size, cursor, BookRow::title, BookRow::id);
+
+        List<EntityModel<BookVO>> content = new ArrayList<>(page.getContent().size());
+        for (BookRow row : page.getContent()) {
+            BookVO vo = DozerMapper.parseObject(row, BookVO.class);
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            content.add(EntityModel.of(vo));
+        }
+
+        //Links hateoas: self e, quando existirem, os cursores da próxima página e da anterior
+        String sort = direction.name().toLowerCase();
+        var model = CollectionModel.of(content,
+                linkTo(methodOn(BookController.class).findAllByCursor(after == null ? "" : after, size, sort)).withSelfRel());
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(BookController.class).findAllByCursor(page.getNext().encode(), size, sort)).withRel(IanaLinkRelations.NEXT));
+        }
+        if (page.getPrev() != null) {
+            model.add(linkTo(methodOn(BookController.class).findAllByCursor(page.getPrev().encode(), size, sort)).withRel(IanaLinkRelations.PREV));
+        }
+        return model;
+    }
+
+    /**
+     * GET com ETag. Quando o If-None-Match já tem a versão atual, respondemos 304 antes de mapear e serializar o livro.
+     */
+    public ResponseEntity<BookVO> findById(Long id, String ifNoneMatch, String accept) {
+        logger.info("Finding one book!");
+        Book entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+
+        String etag = ETags.of(entity.getVersion(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        BookVO bookVO = DozerMapper.parseObject(entity, BookVO.class);
+        bookVO.add(SELF_LINK.withSelfRel(id));
+        return ResponseEntity.ok().eTag(etag).body(bookVO);
+    }
+
     public BookVO findById(Long id) {
         logger.info("Finding one book!");
         Book entity = repository.findById(id)
@@ -66,7 +167,7 @@ public class BookService {
         BookVO bookVO = DozerMapper.parseObject(entity, BookVO.class);
 
         //Adicionando Heteoas
-        bookVO.add(linkTo(methodOn(BookController.class).findById(id)).withSelfRel());
+        bookVO.add(SELF_LINK.withSelfRel(id));
         return bookVO;
     }
 
@@ -75,36 +176,248 @@ public class BookService {
         if (book == null) throw new RequiredObjectIsNullException();
         logger.info("Creating one book!");
         Book entity = DozerMapper.parseObject(book, Book.class);
+        //O POST sempre insere, mesmo com uma key no corpo: atualizar é papel do PUT, que confere a versão
+        entity.setId(null);
         BookVO vo = DozerMapper.parseObject(repository.save(entity), BookVO.class);
         //Adicionando Heteoas
-        vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
         return vo;
     }
 
+    /**
+     * Cria e atualiza vários livros de uma vez, pelo mesmo fluxo do BatchWriter usado no PersonService.saveAll.
+     */
+    public List<BatchResultVO<BookVO>> saveAll(List<BookVO> books) {
+        if (books == null) throw new RequiredObjectIsNullException();
+        logger.info("Saving a batch of {} books!", books.size());
+        return new BookBatchWriter().saveAll(books);
+    }
+
+    private class BookBatchWriter extends BatchWriter<BookVO, Book> {
+
+        BookBatchWriter() {
+            super(repository, transactionTemplate, maxBatchSize);
+        }
+
+        @Override
+        String validate(BookVO book) {
+            return BookService.validate(book);
+        }
+
+        @Override
+        Long keyOf(BookVO book) {
+            return book.getKey();
+        }
+
+        @Override
+        Long versionOf(BookVO book) {
+            return book.getVersion();
+        }
+
+        @Override
+        Book newEntity(BookVO book) {
+            return DozerMapper.parseObject(book, Book.class);
+        }
+
+        @Override
+        void copy(BookVO book, Book entity) {
+            copyFields(book, entity);
+        }
+
+        @Override
+        Long entityId(Book entity) {
+            return entity.getId();
+        }
+
+        @Override
+        long entityVersion(Book entity) {
+            return entity.getVersion();
+        }
+
+        @Override
+        BookVO toVO(Book saved, boolean created) {
+            BookVO vo = DozerMapper.parseObject(saved, BookVO.class);
+            if (!created) responseBodyCache.evict("book", vo.getKey());
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            return vo;
+        }
+
+        @Override
+        BookVO create(BookVO book) {
+            return BookService.this.create(book);
+        }
+
+        @Override
+        BookVO update(BookVO book) {
+            BookVO vo = DozerMapper.parseObject(updateEntity(book, book.getVersion()), BookVO.class);
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            return vo;
+        }
+    }
+
+    //Mesmas regras das colunas da tabela book, checadas antes de ir ao banco
+    private static String validate(BookVO book) {
+        if (book == null) return "It is not allowed to persist a null object!";
+        if (book.getTitle() == null || book.getTitle().isBlank() || book.getTitle().length() > 250) return "title is required and must have at most 250 characters!";
+        if (book.getAuthor() == null || book.getAuthor().isBlank()) return "author is required!";
+        if (book.getLaunchDate() == null) return "launchDate is required!";
+        if (book.getPrice() == null || book.getPrice() < 0) return "price is required and must not be negative!";
+        return null;
+    }
+
+    //Leitura e escrita na mesma transação: com o roteamento para réplicas ligado, as duas vão para o primário
+    @Transactional
     public BookVO update(BookVO book) {
+        BookVO vo = DozerMapper.parseObject(updateEntity(book, null), BookVO.class);
+        //Adicionando Heteoas
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+        return vo;
+    }
+
+    //PUT com If-Match: o update só acontece se o livro ainda estiver na versão que o cliente leu
+    @Transactional
+    public ResponseEntity<BookVO> update(BookVO book, String ifMatch, String accept) {
+        Book entity = updateEntity(book, ETags.expectedVersion(ifMatch));
+        BookVO vo = DozerMapper.parseObject(entity, BookVO.class);
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+        return ResponseEntity.ok().eTag(ETags.of(entity.getVersion(), accept)).body(vo);
+    }
+
+    private Book updateEntity(BookVO book, Long expectedVersion) {
         //Recebe um VO pra salvar uma entidade no banco
         if (book == null) throw new RequiredObjectIsNullException();
 
         logger.info("Updating one book!");
         Book entity = repository.findById(book.getKey())
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        if (expectedVersion != null && entity.getVersion() != expectedVersion) throw new PreconditionFailedException();
+
+        copyFields(book, entity);
 
+        //O UPDATE gerado pelo Hibernate leva a versão lida no WHERE: uma escrita concorrente no meio termina em 412.
+        //O flush é aqui porque, dentro da transação, o UPDATE só sairia no commit, fora deste catch
+        Book saved;
+        try {
+            saved = repository.saveAndFlush(entity);
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException();
+        }
+        responseBodyCache.evict("book", saved.getId());
+        return saved;
+    }
+
+    //Campos que o PUT e o lote sobrescrevem
+    private static void copyFields(BookVO book, Book entity) {
         entity.setTitle(book.getTitle());
         entity.setPrice(book.getPrice());
         entity.setLaunchDate(book.getLaunchDate());
         entity.setAuthor(book.getAuthor());
-
-        BookVO vo = DozerMapper.parseObject(repository.save(entity), BookVO.class);
-        //Adicionando Heteoas
-        vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
-        return vo;
     }
 
+    //Um único DELETE pelo id: 0 linhas afetadas é o 404, sem ler o livro antes
     public void delete(Long id) {
         logger.info("Deleting one book!");
 
-        Book entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-        repository.delete(entity);
+        if (repository.deleteBook(id) == 0) throw new ResourceNotFoundException("No records found for this ID!");
+        entityCacheEvictor.evict(Book.class, id);
+        responseBodyCache.evict("book", id);
+    }
+
+    //Exclui vários livros com um único DELETE ... WHERE id IN
+    @Transactional
+    public BulkResultVO deleteBooks(List<Long> ids) {
+        var distinct = BatchWriter.distinctIds(ids, maxBatchSize);
+        logger.info("Deleting {} books!", distinct.size());
+
+        int affected = repository.deleteBooks(distinct);
+        entityCacheEvictor.evict(Book.class, distinct);
+        responseBodyCache.evictAll("book", distinct);
+        return new BulkResultVO(distinct.size(), affected);
+    }
+
+    //DELETE com If-Match: um único DELETE com a versão no WHERE, sem ler o livro antes
+    public void delete(Long id, String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if (expectedVersion == null) {
+            delete(id);
+            return;
+        }
+        logger.info("Deleting one book!");
+        if (repository.deleteIfVersion(id, expectedVersion) == 0) throw notUpdated(id);
+        entityCacheEvictor.evict(Book.class, id);
+        responseBodyCache.evict("book", id);
+    }
+
+    //Nenhuma linha afetada: ou o livro não existe mais (404) ou está em outra versão (412)
+    private RuntimeException notUpdated(Long id) {
+        return repository.existsById(id)
+                ? new PreconditionFailedException()
+                : new ResourceNotFoundException("No records found for this ID!");
+    }
+
+    /**
+     * Atualização parcial por JSON Merge Patch ou JSON Patch, do mesmo jeito que em PersonService.patch: só as colunas
+     * presentes no documento entram no UPDATE e, com If-Match, o livro não é lido antes.
+     */
+    @Transactional
+    public ResponseEntity<BookVO> patch(Long id, JsonNode body, boolean jsonPatch, String ifMatch, String accept) {
+        logger.info("Patching one book!");
+
+        var patch = JsonPatches.parse(body, jsonPatch);
+        Map<String, Object> values = toColumnValues(patch.changes());
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+
+        BookRow current = null;
+        if (patch.tests().stream().anyMatch(JsonPatches.Test::readsCurrentValue)) {
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+            if (expectedVersion != null && expectedVersion != current.version()) throw new PreconditionFailedException();
+            expectedVersion = current.version();
+        }
+        //Cada test vale na ordem do documento: confere o valor lido ou o valor deixado por uma operação anterior no mesmo campo
+        Map<String, Object> currentValues = current == null ? Map.of()
+                : Map.of("author", current.author(), "launchDate", current.launchDate(),
+                        "price", current.price(), "title", current.title());
+        for (JsonPatches.Test test : patch.tests()) {
+            Object actual = test.readsCurrentValue() ? currentValues.get(test.field()) : toColumnValue(test.field(), test.patched());
+            if (!JsonPatches.sameValue(toColumnValue(test.field(), test.value()), actual)) throw new PreconditionFailedException();
+        }
+
+        if (!values.isEmpty()) {
+            if (partialUpdateRepository.update(Book.class, id, expectedVersion, values) == 0) {
+                throw expectedVersion == null ? new ResourceNotFoundException("No records found for this ID!") : notUpdated(id);
+            }
+            responseBodyCache.evict("book", id);
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        } else if (current == null) {
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+            if (expectedVersion != null && expectedVersion != current.version()) throw new PreconditionFailedException();
+        }
+
+        BookVO vo = DozerMapper.parseObject(current, BookVO.class);
+        vo.add(SELF_LINK.withSelfRel(id));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(current.version(), accept))
+                .header(JsonPatches.COLUMNS_WRITTEN_HEADER, String.valueOf(values.size()))
+                .body(vo);
+    }
+
+    //Campos que podem ser alterados por PATCH, com os tamanhos das colunas
+    private static Map<String, Object> toColumnValues(Map<String, JsonNode> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach((field, node) -> values.put(field, toColumnValue(field, node)));
+        return values;
+    }
+
+    private static Object toColumnValue(String field, JsonNode node) {
+        return switch (field) {
+            case "author" -> JsonPatches.text(field, node, 150);
+            case "title" -> JsonPatches.text(field, node, 250);
+            case "launchDate" -> JsonPatches.value(field, node, Date.class);
+            case "price" -> JsonPatches.value(field, node, Double.class);
+            default -> throw new InvalidPatchException(field + " cannot be patched!");
+        };
     }
 }
@@ -0,0 +1,133 @@
+package br.com.erudio.service;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação da tabela person inteira em NDJSON (um objeto JSON por linha) ou CSV.
+ * As linhas vêm de um Stream do repositório e são escritas direto na resposta, uma a uma: cada entidade é descartada do
+ * contexto de persistência depois de escrita, então a memória usada não cresce com o tamanho da tabela.
+ */
+@Service
+public class PersonExportService {
+
+    private final Logger logger = LoggerFactory.getLogger(PersonExportService.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+    //De quantas em quantas linhas empurramos o que já foi escrito para o cliente
+    private static final int FLUSH_INTERVAL = 500;
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    @Autowired
+    PersonRepository repository;
+    @PersistenceContext
+    EntityManager entityManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * Escreve as pessoas no OutputStream e retorna quantas linhas foram exportadas. Os filtros nulos são ignorados.
+     * Roda em uma transação só leitura porque o Stream mantém o ResultSet aberto enquanto é consumido.
+     */
+    public long export(Format format, Boolean enabled, String gender, OutputStream out) {
+        logger.info("Exporting people as {}!", format);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long rows = readOnly.execute(status -> {
+            try (Stream<Person> people = repository.streamAll(enabled, gender)) {
+                return format == Format.CSV ? writeCsv(people.iterator(), out) : writeNdjson(people.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        logger.info("Exported {} people!", rows);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<Person> people, OutputStream out) throws IOException {
+        long rows = 0;
+        //O gerador escreve campo a campo, sem montar o VO (que levaria os links HATEOAS) nem uma árvore JSON por linha
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            //Sem o espaço que o Jackson coloca entre objetos de topo: o separador é a quebra de linha escrita depois de cada um
+            json.setRootValueSeparator(null);
+            while (people.hasNext()) {
+                Person person = people.next();
+                json.writeStartObject();
+                json.writeNumberField("id", person.getId());
+                json.writeStringField("firstName", person.getFirstName());
+                json.writeStringField("lastName", person.getLastName());
+                json.writeStringField("address", person.getAddress());
+                json.writeStringField("gender", person.getGender());
+                if (person.getEnabled() == null) json.writeNullField("enabled");
+                else json.writeBooleanField("enabled", person.getEnabled());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                entityManager.detach(person);
+                if (++rows % FLUSH_INTERVAL == 0) json.flush();
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Person> people, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("id,first_name,last_name,address,gender,enabled\r\n");
+        while (people.hasNext()) {
+            Person person = people.next();
+            csv.write(String.valueOf(person.getId()));
+            csv.write(',');
+            csv.write(csvField(person.getFirstName()));
+            csv.write(',');
+            csv.write(csvField(person.getLastName()));
+            csv.write(',');
+            csv.write(csvField(person.getAddress()));
+            csv.write(',');
+            csv.write(csvField(person.getGender()));
+            csv.write(',');
+            csv.write(person.getEnabled() == null ? "" : person.getEnabled().toString());
+            csv.write("\r\n");
+            entityManager.detach(person);
+            if (++rows % FLUSH_INTERVAL == 0) csv.flush();
+        }
+        csv.flush();
+        return rows;
+    }
+
+    //Aspas só quando o valor tem separador, aspas ou quebra de linha (RFC 4180)
+    private static String csvField(String value) {
+        if (value == null) return "";
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
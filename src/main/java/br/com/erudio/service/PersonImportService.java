@@ -0,0 +1,349 @@
+package br.com.erudio.service;
+
+import br.com.erudio.data.vo.v1.ImportReportVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.exception.ImportOverloadedException;
+import br.com.erudio.exception.InvalidBatchException;
+import br.com.erudio.logging.MdcTaskDecorator;
+import br.com.erudio.mapper.DozerMapper;
+import br.com.erudio.model.Person;
+import br.com.erudio.util.CsvReader;
+import br.com.erudio.util.VirtualThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importação de pessoas a partir de CSV ou NDJSON, sem carregar o arquivo na memória.
+ * A thread da requisição lê e valida as linhas e junta as válidas em blocos de person-import.chunk-size. Os blocos passam por
+ * uma fila limitada (person-import.queue-capacity) para uma thread gravadora, que grava cada bloco em uma transação com os
+ * INSERTs em batch. Quando o banco fica para trás, a fila enche e a leitura espera: no máximo queue-capacity + 2 blocos ficam
+ * na memória, seja qual for o tamanho do arquivo.
+ * O número de importações simultâneas é limitado por person-import.max-concurrent; acima disso a importação é recusada com 503.
+ */
+@Service
+public class PersonImportService {
+
+    private final Logger logger = LoggerFactory.getLogger(PersonImportService.class);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    //Marca o fim da entrada na fila
+    private static final List<Row> END = new ArrayList<>();
+    //Intervalo, em linhas gravadas, entre os logs de progresso
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    @Value("${person-import.chunk-size:1000}")
+    private int chunkSize = 1000;
+    @Value("${person-import.queue-capacity:4}")
+    private int queueCapacity = 4;
+    @Value("${person-import.max-concurrent:2}")
+    private int maxConcurrent = 2;
+    @Value("${person-import.max-reported-errors:100}")
+    private int maxReportedErrors = 100;
+    //No profile virtual-threads o gravador, que passa a maior parte do tempo esperando o banco, roda em uma virtual thread
+    @Value("${virtual-threads.enabled:false}")
+    private boolean virtualThreads = false;
+
+    @PersistenceContext
+    EntityManager entityManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor writers;
+
+    private record Row(long line, Person person) {
+    }
+
+    @PostConstruct
+    protected void init() {
+        writers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                VirtualThreads.threadFactory("person-import-writer", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        if (writers != null) writers.shutdownNow();
+    }
+
+    public ImportReportVO importPeople(Format format, InputStream in) {
+        logger.info("Importing people from {}!", format);
+        long startedAt = System.nanoTime();
+        Progress progress = new Progress(maxReportedErrors);
+        BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Future<?> writer;
+        try {
+            writer = writers.submit(MdcTaskDecorator.wrap(() -> {
+                write(queue, progress, startedAt);
+                return null;
+            }));
+        } catch (RejectedExecutionException e) {
+            throw new ImportOverloadedException();
+        }
+
+        boolean finished = false;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (format == Format.CSV) parseCsv(reader, queue, writer, progress);
+            else parseNdjson(reader, queue, writer, progress);
+            enqueue(queue, END, writer);
+            writer.get();
+            finished = true;
+        } catch (IOException e) {
+            throw new InvalidBatchException("Could not read the import: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            //Erro na leitura: o gravador para no bloco em que estiver, os blocos já gravados ficam
+            if (!finished) writer.cancel(true);
+        }
+
+        ImportReportVO report = progress.toReport(System.nanoTime() - startedAt);
+        logger.info("Imported {} people, rejected {} lines, {} rows/s",
+                report.getImported(), report.getRejected(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void parseCsv(BufferedReader reader, BlockingQueue<List<Row>> queue, Future<?> writer, Progress progress)
+            throws IOException, InterruptedException, ExecutionException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            //Aceita tanto o nome da coluna (first_name) quanto o do VO (firstName), igual ao CSV da exportação
+            columns.put(header.get(i).strip().replace("_", "").toLowerCase(), i);
+        }
+        for (String required : List.of("firstname", "lastname", "address", "gender")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidBatchException("The CSV header must have the columns first_name, last_name, address and gender!");
+            }
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                progress.read();
+                progress.reject(csv.getRecordLine(), e.getMessage());
+                break;
+            }
+            if (record == null) break;
+            progress.read();
+
+            PersonVO vo = new PersonVO();
+            vo.setFirstName(column(record, columns, "firstname"));
+            vo.setLastName(column(record, columns, "lastname"));
+            vo.setAddress(column(record, columns, "address"));
+            vo.setGender(column(record, columns, "gender"));
+            chunk = accept(csv.getRecordLine(), vo, column(record, columns, "enabled"), chunk, queue, writer, progress);
+        }
+        if (!chunk.isEmpty()) enqueue(queue, chunk, writer);
+    }
+
+    private void parseNdjson(BufferedReader reader, BlockingQueue<List<Row>> queue, Future<?> writer, Progress progress)
+            throws IOException, InterruptedException, ExecutionException {
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            progress.read();
+
+            JsonNode node;
+            try {
+                node = JSON.readTree(line);
+            } catch (JsonProcessingException e) {
+                progress.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (node == null || !node.isObject()) {
+                progress.reject(lineNumber, "Each line must be a JSON object!");
+                continue;
+            }
+
+            PersonVO vo = new PersonVO();
+            vo.setFirstName(text(node, "firstName"));
+            vo.setLastName(text(node, "lastName"));
+            vo.setAddress(text(node, "address"));
+            vo.setGender(text(node, "gender"));
+            chunk = accept(lineNumber, vo, text(node, "enabled"), chunk, queue, writer, progress);
+        }
+        if (!chunk.isEmpty()) enqueue(queue, chunk, writer);
+    }
+
+    //Valida a linha e junta no bloco atual. Retorna o bloco que deve continuar sendo preenchido
+    private List<Row> accept(long line, PersonVO vo, String enabled, List<Row> chunk, BlockingQueue<List<Row>> queue,
+                             Future<?> writer, Progress progress) throws InterruptedException, ExecutionException {
+        String error = PersonService.validate(vo);
+        if (error == null && enabled != null && !enabled.isBlank() && parseBoolean(enabled) == null) {
+            error = "enabled must be true or false!";
+        }
+        if (error != null) {
+            progress.reject(line, error);
+            return chunk;
+        }
+        vo.setEnabled(enabled == null || enabled.isBlank() ? Boolean.TRUE : parseBoolean(enabled));
+        chunk.add(new Row(line, DozerMapper.parseObject(vo, Person.class)));
+        if (chunk.size() < chunkSize) return chunk;
+        enqueue(queue, chunk, writer);
+        return new ArrayList<>(chunkSize);
+    }
+
+    private void enqueue(BlockingQueue<List<Row>> queue, List<Row> chunk, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        //Back-pressure: a leitura fica parada aqui enquanto a fila estiver cheia. Se o gravador morrer, o erro dele sobe por aqui
+        while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Import writer stopped");
+            }
+        }
+    }
+
+    private void write(BlockingQueue<List<Row>> queue, Progress progress, long startedAt) throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        while (true) {
+            List<Row> chunk = queue.take();
+            if (chunk == END) return;
+            try {
+                transaction.executeWithoutResult(status -> {
+                    for (Row row : chunk) entityManager.persist(row.person());
+                    //INSERTs em batch no flush; o clear descarta as entidades para o contexto não crescer a cada bloco
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                progress.imported(chunk.size(), startedAt);
+            } catch (DataAccessException | PersistenceException e) {
+                //O bloco sofreu rollback: gravamos linha a linha para recusar só as que o banco não aceita
+                for (Row row : chunk) {
+                    Person person = row.person();
+                    //O id reservado no bloco que falhou é descartado, senão o Hibernate trataria a pessoa como já existente
+                    person.setId(null);
+                    person.setVersion(0);
+                    try {
+                        transaction.executeWithoutResult(status -> {
+                            entityManager.persist(person);
+                            entityManager.flush();
+                            entityManager.clear();
+                        });
+                        progress.imported(1, startedAt);
+                    } catch (DataAccessException | PersistenceException ex) {
+                        progress.reject(row.line(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) return null;
+        return record.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.strip().toLowerCase()) {
+            case "true", "1" -> Boolean.TRUE;
+            case "false", "0" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    //Contadores compartilhados entre a leitura e o gravador
+    private final class Progress {
+
+        private final int maxReportedErrors;
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<String> rejectedLines = new ArrayList<>();
+
+        Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void read() {
+            read.incrementAndGet();
+        }
+
+        void imported(int rows, long startedAt) {
+            long total = imported.addAndGet(rows);
+            if (total / PROGRESS_INTERVAL != (total - rows) / PROGRESS_INTERVAL) {
+                double seconds = (System.nanoTime() - startedAt) / 1e9;
+                logger.info("Import progress: {} people, {} rows/s", total, Math.round(total / seconds));
+            }
+        }
+
+        void reject(long line, String error) {
+            rejected.incrementAndGet();
+            synchronized (rejectedLines) {
+                if (rejectedLines.size() < maxReportedErrors) rejectedLines.add("line " + line + ": " + error);
+            }
+        }
+
+        ImportReportVO toReport(long elapsedNanos) {
+            ImportReportVO report = new ImportReportVO();
+            report.setRead(read.get());
+            report.setImported(imported.get());
+            report.setRejected(rejected.get());
+            report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            report.setRowsPerSecond(elapsedNanos == 0 ? 0 : imported.get() / (elapsedNanos / 1e9));
+            synchronized (rejectedLines) {
+                report.setRejectedLines(new ArrayList<>(rejectedLines));
+            }
+            return report;
+        }
+    }
+}
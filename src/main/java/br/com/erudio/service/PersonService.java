@@ -1,24 +1,53 @@
 package br.com.erudio.service;
 
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.cache.ResponseBodyCache;
 import br.com.erudio.controller.PersonController;
+import br.com.erudio.data.projection.PersonRow;
+import br.com.erudio.data.vo.v1.BatchResultVO;
+import br.com.erudio.data.vo.v1.BulkResultVO;
 import br.com.erudio.data.vo.v1.PersonVO;
 import br.com.erudio.data.vo.v2.PersonVOV2;
+import br.com.erudio.exception.InvalidPatchException;
+import br.com.erudio.exception.PreconditionFailedException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
 import br.com.erudio.mapper.DozerMapper;
 import br.com.erudio.mapper.custom.PersonMapper;
 import br.com.erudio.model.Person;
+import br.com.erudio.repository.PartialUpdateRepository;
 import br.com.erudio.repository.PersonRepository;
-import jakarta.transaction.Transactional;
+import br.com.erudio.util.ETags;
+import br.com.erudio.util.JsonPatches;
+import br.com.erudio.util.KeysetCursor;
+import br.com.erudio.util.KeysetPage;
+import br.com.erudio.util.LinkTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -26,26 +55,48 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Service
 public class PersonService {
 
-    private final Logger logger = Logger.getLogger(PersonService.class.getName());
+    private final Logger logger = LoggerFactory.getLogger(PersonService.class);
+
+    //Template do link self resolvido uma única vez, em vez de um linkTo(methodOn(...)) por item
+    private static final LinkTemplate SELF_LINK = LinkTemplate.of(PersonController.class, "findById", Long.class, String.class, String.class);
+
+    //Deve acompanhar o ngram_token_size do MySQL (2 por padrão): termos menores que isso não são encontrados pelo índice full-text
+    static final int NGRAM_TOKEN_SIZE = 2;
 
     @Autowired
     PersonRepository repository;
+    //Corpos já serializados do GET por id, invalidados em toda escrita
+    @Autowired
+    ResponseBodyCache responseBodyCache;
+    //Os UPDATEs e DELETEs diretos não passam pelo Hibernate: os ids afetados saem do cache de segundo nível por aqui
+    @Autowired
+    EntityCacheEvictor entityCacheEvictor;
     @Autowired
     PersonMapper mapper;
+    //Usado no lote: todos os itens válidos são gravados em uma transação só, com um único flush
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    PartialUpdateRepository partialUpdateRepository;
+    @Value("${batch.max-size:1000}")
+    int maxBatchSize;
     //Esse Assembler vai nos ajudar a criar links hateoas para nossas páginas
     @Autowired
     PagedResourcesAssembler<PersonVO> assembler;
 
+    //Listagens em transação somente leitura: o Hibernate não guarda snapshot para dirty checking nem faz flush no commit
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<PersonVO>> findAll(Pageable pageable) {
         logger.info("Finding all people!");
 
-        var personPage = repository.findAll(pageable);
+        //Projeção direto em PersonRow, sem hidratar entidades
+        var personPage = repository.findAllRows(pageable);
 
         //Convertendo a lista page para uma lista de VOs
         var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
 
         //Links hateoas
-        personVosPage.map(p -> p.add(linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel()));
+        personVosPage.map(p -> p.add(SELF_LINK.withSelfRel(p.getKey())));
 
         //Aqui estamos criando um link hateoas para o nosso objeto página
         Link link = linkTo(methodOn(PersonController.class).findAll(
@@ -57,16 +108,21 @@ public class PersonService {
         return assembler.toModel(personVosPage, link);
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<PersonVO>> findPersonsByName(String firstname, Pageable pageable) {
         logger.info("Finding persons by name!");
 
-        var personPage = repository.findPersonsByName(firstname, pageable);
-
-        //Convertendo a lista page para uma lista de VOs
-        var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
+        //Termos com pelo menos o tamanho do ngram usam o índice full-text (consulta nativa, ainda em entidades), os menores
+        //continuam no LIKE já projetado em PersonRow. Os dois caminhos são convertidos para VO
+        var term = firstname.strip();
+        Page<PersonVO> personVosPage = term.length() >= NGRAM_TOKEN_SIZE
+                ? repository.searchPersonsByName(ngramPhrase(term), term, toColumnSort(pageable))
+                        .map(p -> DozerMapper.parseObject(p, PersonVO.class))
+                : repository.findPersonsByName(firstname, pageable)
+                        .map(p -> DozerMapper.parseObject(p, PersonVO.class));
 
         //Links hateoas
-        personVosPage.map(p -> p.add(linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel()));
+        personVosPage.map(p -> p.add(SELF_LINK.withSelfRel(p.getKey())));
 
         //Aqui estamos criando um link hateoas para o nosso objeto página
         Link link = linkTo(methodOn(PersonController.class).findAll(
@@ -78,6 +134,75 @@ public class PersonService {
         return assembler.toModel(personVosPage, link);
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<PersonVO>> findAllByCursor(String after, Integer size, Sort.Direction direction) {
+        logger.info("Finding people by cursor!");
+
+        //Paginação por keyset: em vez de OFFSET, buscamos a partir da posição (firstName, id) guardada no cursor
+        var cursor = KeysetCursor.decode(after);
+        boolean ascending = KeysetPage.seeksAscending(cursor, direction);
+        Pageable seek = KeysetPage.seekRequest(size, "firstName", ascending);
+
+        List<PersonRow> rows;
+        if (cursor == null) rows = repository.findAllBy(seek);
+        else if (ascending) rows = repository.findPeopleAfter(cursor.getValue(), cursor.getId(), seek);
+        else rows = repository.findPeopleBefore(cursor.getValue(), cursor.getId(), seek);
+
+        var page = KeysetPage.of(rows, size, cursor, PersonRow::firstName, PersonRow::id);
+
+        List<EntityModel<PersonVO>> content = new ArrayList<>(page.getContent().size());
+        for (PersonRow row : page.getContent()) {
+            PersonVO vo = DozerMapper.parseObject(row, PersonVO.class);
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            content.add(EntityModel.of(vo));
+        }
+
+        //Links hateoas: self e, quando existirem, os cursores da próxima página e da anterior
+        String sort = direction.name().toLowerCase();
+        var model = CollectionModel.of(content,
+                linkTo(methodOn(PersonController.class).findAllByCursor(after == null ? "" : after, size, sort)).withSelfRel());
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(PersonController.class).findAllByCursor(page.getNext().encode(), size, sort)).withRel(IanaLinkRelations.NEXT));
+        }
+        if (page.getPrev() != null) {
+            model.add(linkTo(methodOn(PersonController.class).findAllByCursor(page.getPrev().encode(), size, sort)).withRel(IanaLinkRelations.PREV));
+        }
+        return model;
+    }
+
+    //No modo BOOLEAN, o termo entre aspas vira uma frase: os ngrams precisam aparecer em sequência, o que equivale a buscar o trecho
+    static String ngramPhrase(String term) {
+        return '"' + term.replace("\"", "") + '"';
+    }
+
+    //A query nativa ordena por coluna, então convertemos as propriedades do Pageable (firstName -> first_name)
+    private static Pageable toColumnSort(Pageable pageable) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String column = order.getProperty().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+            orders.add(order.withProperty(column));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    /**
+     * GET com ETag. Quando o If-None-Match já tem a versão atual, respondemos 304 antes de mapear e serializar a pessoa.
+     */
+    public ResponseEntity<PersonVO> findById(Long id, String ifNoneMatch, String accept) {
+        logger.info("Finding one person!");
+        var entity = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+
+        String etag = ETags.of(entity.getVersion(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        PersonVO vo = DozerMapper.parseObject(entity, PersonVO.class);
+        vo.add(SELF_LINK.withSelfRel(id));
+        return ResponseEntity.ok().eTag(etag).body(vo);
+    }
+
     public PersonVO findById(Long id) {
         logger.info("Finding one person!");
         var entity = repository.findById(id)
@@ -86,7 +211,7 @@ public class PersonService {
         PersonVO vo = DozerMapper.parseObject(entity, PersonVO.class);
 
         //Adicionando Heteoas
-        vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
+        vo.add(SELF_LINK.withSelfRel(id));
         return vo;
     }
 
@@ -94,66 +219,323 @@ public class PersonService {
         if (person == null) throw new RequiredObjectIsNullException();
         logger.info("Creating one person!");
         var entity = DozerMapper.parseObject(person, Person.class);
+        //O POST sempre insere: com uma key no corpo o save viraria um merge na versão 0 e falharia em qualquer linha já
+        //alterada. Atualizar é papel do PUT, que confere a versão
+        entity.setId(null);
         PersonVO vo = DozerMapper.parseObject(repository.save(entity), PersonVO.class);
         //Adicionando Heteoas
-        vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
         return vo;
     }
 
 
+    /**
+     * Cria e atualiza várias pessoas de uma vez, pelo fluxo do BatchWriter: um único flush em lote e, se o banco recusar
+     * algum item, a gravação um por um para que só esse item fique com erro. Itens com version são checados como no If-Match.
+     */
+    public List<BatchResultVO<PersonVO>> saveAll(List<PersonVO> people) {
+        if (people == null) throw new RequiredObjectIsNullException();
+        logger.info("Saving a batch of {} people!", people.size());
+        return new PersonBatchWriter().saveAll(people);
+    }
+
+    private class PersonBatchWriter extends BatchWriter<PersonVO, Person> {
+
+        PersonBatchWriter() {
+            super(repository, transactionTemplate, maxBatchSize);
+        }
+
+        @Override
+        String validate(PersonVO person) {
+            return PersonService.validate(person);
+        }
+
+        @Override
+        Long keyOf(PersonVO person) {
+            return person.getKey();
+        }
+
+        @Override
+        Long versionOf(PersonVO person) {
+            return person.getVersion();
+        }
+
+        @Override
+        Person newEntity(PersonVO person) {
+            Person entity = DozerMapper.parseObject(person, Person.class);
+            if (entity.getEnabled() == null) entity.setEnabled(true);
+            return entity;
+        }
+
+        @Override
+        void copy(PersonVO person, Person entity) {
+            copyFields(person, entity);
+        }
+
+        @Override
+        Long entityId(Person entity) {
+            return entity.getId();
+        }
+
+        @Override
+        long entityVersion(Person entity) {
+            return entity.getVersion();
+        }
+
+        @Override
+        PersonVO toVO(Person saved, boolean created) {
+            PersonVO vo = DozerMapper.parseObject(saved, PersonVO.class);
+            if (!created) responseBodyCache.evict("person", vo.getKey());
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            return vo;
+        }
+
+        @Override
+        PersonVO create(PersonVO person) {
+            if (person.getEnabled() == null) person.setEnabled(true);
+            return PersonService.this.create(person);
+        }
+
+        @Override
+        PersonVO update(PersonVO person) {
+            PersonVO vo = DozerMapper.parseObject(updateEntity(person, person.getVersion()), PersonVO.class);
+            vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+            return vo;
+        }
+    }
+
+    //Mesmas regras das colunas da tabela person, checadas antes de ir ao banco
+    static String validate(PersonVO person) {
+        if (person == null) return "It is not allowed to persist a null object!";
+        if (isBlank(person.getFirstName()) || person.getFirstName().length() > 80) return "firstName is required and must have at most 80 characters!";
+        if (isBlank(person.getLastName()) || person.getLastName().length() > 80) return "lastName is required and must have at most 80 characters!";
+        if (isBlank(person.getAddress()) || person.getAddress().length() > 100) return "address is required and must have at most 100 characters!";
+        if (isBlank(person.getGender()) || person.getGender().length() > 6) return "gender is required and must have at most 6 characters!";
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     public PersonVOV2 createV2(PersonVOV2 person) {
         logger.info("Creating one person!");
         var entity = mapper.convertVoToEntity(person);
+        entity.setId(null);
         PersonVOV2 personVOV2 = mapper.convertEntityToVo(repository.save(entity));
         return personVOV2;
     }
 
 
+    //Leitura e escrita na mesma transação: com o roteamento para réplicas ligado, as duas vão para o primário
+    @Transactional
     public PersonVO update(PersonVO person) {
+        PersonVO vo = DozerMapper.parseObject(updateEntity(person, null), PersonVO.class);
+        //Adicionando Heteoas
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+        return vo;
+    }
+
+    //PUT com If-Match: o update só acontece se a pessoa ainda estiver na versão que o cliente leu
+    @Transactional
+    public ResponseEntity<PersonVO> update(PersonVO person, String ifMatch, String accept) {
+        Person entity = updateEntity(person, ETags.expectedVersion(ifMatch));
+        PersonVO vo = DozerMapper.parseObject(entity, PersonVO.class);
+        vo.add(SELF_LINK.withSelfRel(vo.getKey()));
+        return ResponseEntity.ok().eTag(ETags.of(entity.getVersion(), accept)).body(vo);
+    }
+
+    private Person updateEntity(PersonVO person, Long expectedVersion) {
         if (person == null) throw new RequiredObjectIsNullException();
 
         logger.info("Updating one person!");
 
         Person entity = repository.findById(person.getKey())
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        if (expectedVersion != null && entity.getVersion() != expectedVersion) throw new PreconditionFailedException();
+
+        copyFields(person, entity);
+
+        //O UPDATE gerado pelo Hibernate leva a versão lida no WHERE, então uma escrita concorrente entre o findById e o save
+        //também termina em 412 em vez de ser sobrescrita. O flush é aqui porque, dentro da transação, o UPDATE só sairia no
+        //commit, fora deste catch
+        Person saved;
+        try {
+            saved = repository.saveAndFlush(entity);
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException();
+        }
+        responseBodyCache.evict("person", saved.getId());
+        return saved;
+    }
 
-
+    //Campos que o PUT e o lote sobrescrevem
+    private static void copyFields(PersonVO person, Person entity) {
         entity.setFirstName(person.getFirstName());
         entity.setLastName(person.getLastName());
         entity.setAddress(person.getAddress());
         entity.setGender(person.getGender());
+    }
+
+    //Para esse método como eu estou fazendo uma escrita de dados, e o spring data não gerencia, preciso usar a annotation Transactional, visto que criamos nossa própria operação, e é de modificação, caso seja uma query de leitura não precisamos do @Transactional.
+    @Transactional
+    public PersonVO disablePerson(Long id) {
+        var row = disableRow(id, null);
+
+        PersonVO vo = DozerMapper.parseObject(row, PersonVO.class);
 
-        PersonVO vo = DozerMapper.parseObject(repository.save(entity), PersonVO.class);
         //Adicionando Heteoas
-        vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
+        vo.add(SELF_LINK.withSelfRel(id));
         return vo;
     }
 
-    //Para esse método como eu estou fazendo uma escrita de dados, e o spring data não gerencia, preciso usar a annotation Transactional, visto que criamos nossa própria operação, e é de modificação, caso seja uma query de leitura não precisamos do @Transactional.
+    //PATCH com If-Match: um único UPDATE com a versão no WHERE. Só lemos a pessoa depois, para montar a resposta
     @Transactional
-    public PersonVO disablePerson(Long id) {
+    public ResponseEntity<PersonVO> disablePerson(Long id, String ifMatch, String accept) {
+        var row = disableRow(id, ETags.expectedVersion(ifMatch));
+
+        PersonVO vo = DozerMapper.parseObject(row, PersonVO.class);
+        vo.add(SELF_LINK.withSelfRel(id));
+        return ResponseEntity.ok().eTag(ETags.of(row.version(), accept)).body(vo);
+    }
+
+    //O número de linhas afetadas pelo UPDATE já diz se a pessoa existe, sem um SELECT antes. A resposta vem de uma projeção
+    //lida logo depois, na mesma transação, já com a versão nova
+    private PersonRow disableRow(Long id, Long expectedVersion) {
         logger.info("Disabling one person!");
 
-        repository.disablePerson(id);
+        if (expectedVersion == null) {
+            if (repository.disablePerson(id) == 0) throw new ResourceNotFoundException("No records found for this ID!");
+        } else if (repository.disablePersonIfVersion(id, expectedVersion) == 0) {
+            throw notUpdated(id);
+        }
+        entityCacheEvictor.evict(Person.class, id);
+        responseBodyCache.evict("person", id);
 
-        var entity = repository.findById(id)
+        return repository.findRowById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+    }
 
-        PersonVO vo = DozerMapper.parseObject(entity, PersonVO.class);
+    //Desabilita várias pessoas com um único UPDATE ... WHERE id IN
+    @Transactional
+    public BulkResultVO disablePeople(List<Long> ids) {
+        var distinct = BatchWriter.distinctIds(ids, maxBatchSize);
+        logger.info("Disabling {} people!", distinct.size());
+
+        int affected = repository.disablePeople(distinct);
+        entityCacheEvictor.evict(Person.class, distinct);
+        responseBodyCache.evictAll("person", distinct);
+        return new BulkResultVO(distinct.size(), affected);
+    }
 
-        //Adicionando Heteoas
-        vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
-        return vo;
+    //Exclui várias pessoas com um único DELETE ... WHERE id IN
+    @Transactional
+    public BulkResultVO deletePeople(List<Long> ids) {
+        var distinct = BatchWriter.distinctIds(ids, maxBatchSize);
+        logger.info("Deleting {} people!", distinct.size());
+
+        int affected = repository.deletePeople(distinct);
+        entityCacheEvictor.evict(Person.class, distinct);
+        responseBodyCache.evictAll("person", distinct);
+        return new BulkResultVO(distinct.size(), affected);
     }
 
+    /**
+     * Atualização parcial por JSON Merge Patch ou JSON Patch. Só as colunas presentes no documento entram no UPDATE, e com
+     * If-Match a versão vai no WHERE, então a pessoa não é lida antes. Só as operações test do JSON Patch sobre campos ainda não
+     * alterados pelo documento precisam dos valores atuais: nesse caso a linha é lida e a versão lida passa a ser a condição do UPDATE.
+     * A resposta traz a pessoa atualizada, o ETag novo e o número de colunas gravadas.
+     */
+    @Transactional
+    public ResponseEntity<PersonVO> patch(Long id, JsonNode body, boolean jsonPatch, String ifMatch, String accept) {
+        logger.info("Patching one person!");
+
+        var patch = JsonPatches.parse(body, jsonPatch);
+        Map<String, Object> values = toColumnValues(patch.changes());
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+
+        PersonRow current = null;
+        if (patch.tests().stream().anyMatch(JsonPatches.Test::readsCurrentValue)) {
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+            if (expectedVersion != null && expectedVersion != current.version()) throw new PreconditionFailedException();
+            expectedVersion = current.version();
+        }
+        //Cada test vale na ordem do documento: confere o valor lido ou o valor deixado por uma operação anterior no mesmo campo
+        Map<String, Object> currentValues = current == null ? Map.of()
+                : Map.of("firstName", current.firstName(), "lastName", current.lastName(),
+                        "address", current.address(), "gender", current.gender(), "enabled", current.enabled());
+        for (JsonPatches.Test test : patch.tests()) {
+            Object actual = test.readsCurrentValue() ? currentValues.get(test.field()) : toColumnValue(test.field(), test.patched());
+            if (!JsonPatches.sameValue(toColumnValue(test.field(), test.value()), actual)) throw new PreconditionFailedException();
+        }
+
+        if (!values.isEmpty()) {
+            if (partialUpdateRepository.update(Person.class, id, expectedVersion, values) == 0) {
+                throw expectedVersion == null ? new ResourceNotFoundException("No records found for this ID!") : notUpdated(id);
+            }
+            responseBodyCache.evict("person", id);
+            //O MySQL não tem UPDATE ... RETURNING: a resposta vem de uma projeção lida na mesma transação
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        } else if (current == null) {
+            //Documento vazio: nada para gravar, só a representação atual
+            current = repository.findRowById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+            if (expectedVersion != null && expectedVersion != current.version()) throw new PreconditionFailedException();
+        }
+
+        PersonVO vo = DozerMapper.parseObject(current, PersonVO.class);
+        vo.add(SELF_LINK.withSelfRel(id));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(current.version(), accept))
+                .header(JsonPatches.COLUMNS_WRITTEN_HEADER, String.valueOf(values.size()))
+                .body(vo);
+    }
 
-    public void delete(Long id) {
+    //Campos que podem ser alterados por PATCH, com as mesmas regras do validate
+    private static Map<String, Object> toColumnValues(Map<String, JsonNode> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach((field, node) -> values.put(field, toColumnValue(field, node)));
+        return values;
+    }
+
+    private static Object toColumnValue(String field, JsonNode node) {
+        return switch (field) {
+            case "firstName", "lastName" -> JsonPatches.text(field, node, 80);
+            case "address" -> JsonPatches.text(field, node, 100);
+            case "gender" -> JsonPatches.text(field, node, 6);
+            case "enabled" -> JsonPatches.value(field, node, Boolean.class);
+            default -> throw new InvalidPatchException(field + " cannot be patched!");
+        };
+    }
+
+    //DELETE com If-Match: um único DELETE com a versão no WHERE, sem ler a pessoa antes
+    public void delete(Long id, String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if (expectedVersion == null) {
+            delete(id);
+            return;
+        }
         logger.info("Deleting one person!");
+        if (repository.deleteIfVersion(id, expectedVersion) == 0) throw notUpdated(id);
+        entityCacheEvictor.evict(Person.class, id);
+        responseBodyCache.evict("person", id);
+    }
 
-        Person entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-        logger.info("Updating one person!");
+    //Nenhuma linha afetada: ou a pessoa não existe mais (404) ou está em outra versão (412)
+    private RuntimeException notUpdated(Long id) {
+        return repository.existsById(id)
+                ? new PreconditionFailedException()
+                : new ResourceNotFoundException("No records found for this ID!");
+    }
+
+    //Um único DELETE pelo id: 0 linhas afetadas é o 404, sem ler a pessoa antes
+    public void delete(Long id) {
+        logger.info("Deleting one person!");
 
-        repository.delete(entity);
+        if (repository.deletePerson(id) == 0) throw new ResourceNotFoundException("No records found for this ID!");
+        entityCacheEvictor.evict(Person.class, id);
+        responseBodyCache.evict("person", id);
     }
 }
@@ -0,0 +1,47 @@
+package br.com.erudio.service;
+
+import br.com.erudio.controller.BookController;
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.repository.ReactiveBookRepository;
+import br.com.erudio.util.LinkTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Leituras de livros pelo caminho reativo (R2DBC), com os mesmos links self do BookController.
+ */
+@Service
+public class ReactiveBookService {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactiveBookService.class);
+
+    private static final LinkTemplate SELF_LINK = LinkTemplate.of(BookController.class, "findById", Long.class, String.class, String.class);
+
+    @Autowired
+    ReactiveBookRepository repository;
+
+    public Flux<BookVO> findAll(Integer page, Integer size, Sort.Direction direction) {
+        logger.info("Streaming all books!");
+        String baseUri = LinkTemplate.baseUri();
+        return repository.findAll(page, size, direction).map(vo -> withSelfLink(vo, baseUri));
+    }
+
+    public Mono<BookVO> findById(Long id) {
+        logger.info("Finding one book reactively!");
+        String baseUri = LinkTemplate.baseUri();
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No records found for this ID!")))
+                .map(vo -> withSelfLink(vo, baseUri));
+    }
+
+    private static BookVO withSelfLink(BookVO vo, String baseUri) {
+        return vo.add(SELF_LINK.withSelfRelFrom(baseUri, vo.getKey()));
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.erudio.service;
+
+import br.com.erudio.controller.PersonController;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.repository.ReactivePersonRepository;
+import br.com.erudio.util.LinkTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Leituras de pessoas pelo caminho reativo (R2DBC). Os links self apontam para o GET por id do PersonController, igual às
+ * respostas do caminho bloqueante. A URI base vem da thread da requisição, porque os itens são montados nas threads do driver.
+ */
+@Service
+public class ReactivePersonService {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactivePersonService.class);
+
+    private static final LinkTemplate SELF_LINK = LinkTemplate.of(PersonController.class, "findById", Long.class, String.class, String.class);
+
+    @Autowired
+    ReactivePersonRepository repository;
+
+    public Flux<PersonVO> findAll(Integer page, Integer size, Sort.Direction direction) {
+        logger.info("Streaming all people!");
+        String baseUri = LinkTemplate.baseUri();
+        return repository.findAll(page, size, direction).map(vo -> withSelfLink(vo, baseUri));
+    }
+
+    public Mono<PersonVO> findById(Long id) {
+        logger.info("Finding one person reactively!");
+        String baseUri = LinkTemplate.baseUri();
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No records found for this ID!")))
+                .map(vo -> withSelfLink(vo, baseUri));
+    }
+
+    public Flux<PersonVO> findPersonsByName(String firstName, Sort.Direction direction) {
+        logger.info("Streaming persons by name!");
+        String baseUri = LinkTemplate.baseUri();
+        var term = firstName.strip();
+        var people = term.length() >= PersonService.NGRAM_TOKEN_SIZE
+                ? repository.searchByName(PersonService.ngramPhrase(term), term, direction)
+                : repository.findByName(firstName, direction);
+        return people.map(vo -> withSelfLink(vo, baseUri));
+    }
+
+    private static PersonVO withSelfLink(PersonVO vo, String baseUri) {
+        return vo.add(SELF_LINK.withSelfRelFrom(baseUri, vo.getKey()));
+    }
+}
@@ -1,34 +1,64 @@
 package br.com.erudio.service;
 
+import br.com.erudio.jfr.AuthEvent;
+import br.com.erudio.model.User;
 import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.cache.UserDetailsCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.logging.Logger;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
-    private Logger logger = Logger.getLogger(UserService.class.getName());
+    private Logger logger = LoggerFactory.getLogger(UserService.class);
 
     @Autowired
     UserRepository repository;
 
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
     public UserService(UserRepository repository) {
         this.repository = repository;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.info("Finding one user by name " + username + "!");
+        logger.info("Finding one user by name {}!", username);
+        var event = new AuthEvent();
+        event.begin();
         var user = repository.findByUsername(username);
+        event.commit(AuthEvent.LOAD_USER, user != null);
         if (user != null) {
             return user;
         } else {
             throw new UsernameNotFoundException("Username " + username + " not found!");
         }
     }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider depois de um login com sucesso quando o hash gravado foi gerado por um perfil
+     * diferente do security.password-encoder.encoding-id. A senha recebida já vem com o hash novo, com o prefixo {id}.
+     * A transação de escrita própria manda o UPDATE para o primário mesmo quando o loadUserByUsername leu de uma réplica.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        logger.info("Upgrading password hash of user {}!", user.getUsername());
+        repository.updatePassword(user.getUsername(), newPassword);
+        if (userDetailsCache != null) userDetailsCache.evict(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+            return entity;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
+    }
 }
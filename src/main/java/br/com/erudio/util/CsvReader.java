@@ -0,0 +1,90 @@
+package br.com.erudio.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que devolve um registro por vez, sem carregar o arquivo na memória.
+ * Aceita campos entre aspas com vírgulas, aspas duplicadas ("") e quebras de linha dentro deles. O Reader deve ser bufferizado.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    //Linha do arquivo onde começou o último registro lido, usada nas mensagens de erro
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Lê o próximo registro. Retorna null no fim do arquivo.
+     * Lança IllegalArgumentException se o arquivo terminar dentro de um campo entre aspas.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        //Linhas vazias entre registros são ignoradas
+        while (c == '\r' || c == '\n') {
+            if (c == '\r' && peek() == '\n') read();
+            line++;
+            c = read();
+        }
+        if (c == -1) return null;
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IllegalArgumentException("Unterminated quoted field starting at line " + recordLine);
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') read();
+                if (c != -1) line++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (pending == -2) pending = reader.read();
+        return pending;
+    }
+}
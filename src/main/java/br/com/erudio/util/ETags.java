@@ -0,0 +1,51 @@
+package br.com.erudio.util;
+
+import br.com.erudio.exception.PreconditionFailedException;
+
+/**
+ * ETags fortes derivados da coluna version de person e book, no formato "<versão>-<subtipo>" (ex: "3-json").
+ * O subtipo entra porque JSON, XML e YAML são representações diferentes do mesmo registro e não podem ter o mesmo ETag forte.
+ * No If-Match só a versão importa: o cliente pode ter lido em JSON e atualizar enviando XML.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String of(long version, String accept) {
+        String mediaType = MediaType.negotiate(accept);
+        String subtype = mediaType == null ? "json" : mediaType.substring(mediaType.indexOf('/') + 1);
+        return "\"" + version + "-" + subtype + "\"";
+    }
+
+    //Comparação fraca do If-None-Match: W/"3-json" também vale para "3-json"
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.strip();
+            if (value.equals("*")) return true;
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Versão esperada pelo If-Match, ou null quando o header não veio ou é "*" (qualquer versão existente).
+     * O If-Match usa comparação forte, então ETags fracos ou em outro formato resultam em 412.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) return null;
+        String value = ifMatch.strip();
+        if (value.contains(",")) throw new PreconditionFailedException("Only one ETag is supported in If-Match!");
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new PreconditionFailedException("Invalid ETag in If-Match!");
+        }
+        value = value.substring(1, value.length() - 1);
+        int separator = value.indexOf('-');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Invalid ETag in If-Match!");
+        }
+    }
+}
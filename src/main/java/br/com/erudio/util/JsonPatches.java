@@ -0,0 +1,111 @@
+package br.com.erudio.util;
+
+import br.com.erudio.exception.InvalidPatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Leitura dos documentos de PATCH: JSON Merge Patch (RFC 7396) e JSON Patch (RFC 6902).
+ * Os recursos são planos (só campos simples), então os dois formatos viram o mesmo mapa campo -> novo valor. Do JSON Patch
+ * são aceitas as operações add, replace e remove em caminhos de um nível ("/firstName"), e test, que vira uma pré-condição.
+ * As operações valem na ordem do documento (RFC 6902): um test confere o valor atual do campo ou, se uma operação anterior já
+ * alterou esse campo, o valor que ela deixou. move e copy não fazem sentido em um recurso sem campos aninhados.
+ */
+public final class JsonPatches {
+
+    //Cabeçalho da resposta do PATCH com quantas colunas o UPDATE gravou (sem contar a versão)
+    public static final String COLUMNS_WRITTEN_HEADER = "X-Columns-Written";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JsonPatches() {
+    }
+
+    //changes: campo -> novo valor (NullNode para remoção). tests: as operações test, na ordem do documento
+    public record Patch(Map<String, JsonNode> changes, List<Test> tests) {
+    }
+
+    //patched é o valor deixado por uma operação anterior no mesmo campo, ou null quando o test confere o valor atual
+    public record Test(String field, JsonNode value, JsonNode patched) {
+
+        public boolean readsCurrentValue() {
+            return patched == null;
+        }
+    }
+
+    public static Patch parse(JsonNode body, boolean jsonPatch) {
+        if (body == null) throw new InvalidPatchException("The patch document is required!");
+        return jsonPatch ? parseJsonPatch(body) : parseMergePatch(body);
+    }
+
+    private static Patch parseMergePatch(JsonNode body) {
+        if (!body.isObject()) throw new InvalidPatchException("A merge patch must be a JSON object!");
+        Map<String, JsonNode> changes = new LinkedHashMap<>();
+        body.fields().forEachRemaining(field -> changes.put(field.getKey(), field.getValue()));
+        return new Patch(changes, List.of());
+    }
+
+    private static Patch parseJsonPatch(JsonNode body) {
+        if (!body.isArray()) throw new InvalidPatchException("A JSON patch must be an array of operations!");
+        Map<String, JsonNode> changes = new LinkedHashMap<>();
+        List<Test> tests = new ArrayList<>();
+        for (JsonNode operation : body) {
+            String op = operation.path("op").asText();
+            String field = field(operation.path("path").asText());
+            switch (op) {
+                case "add", "replace" -> changes.put(field, requireValue(operation, op));
+                case "remove" -> changes.put(field, NullNode.getInstance());
+                case "test" -> tests.add(new Test(field, requireValue(operation, op), changes.get(field)));
+                default -> throw new InvalidPatchException("Unsupported patch operation: " + op);
+            }
+        }
+        return new Patch(changes, tests);
+    }
+
+    private static String field(String path) {
+        if (path.length() < 2 || path.charAt(0) != '/' || path.indexOf('/', 1) >= 0) {
+            throw new InvalidPatchException("Only top level paths can be patched: " + path);
+        }
+        //Escapes do JSON Pointer (RFC 6901)
+        return path.substring(1).replace("~1", "/").replace("~0", "~");
+    }
+
+    private static JsonNode requireValue(JsonNode operation, String op) {
+        if (!operation.has("value")) throw new InvalidPatchException("The " + op + " operation needs a value!");
+        return operation.get("value");
+    }
+
+    //Texto obrigatório com tamanho máximo, as mesmas regras da criação
+    public static String text(String field, JsonNode node, int maxLength) {
+        String value = value(field, node, String.class);
+        if (value.isBlank() || value.length() > maxLength) {
+            throw new InvalidPatchException(field + " is required and must have at most " + maxLength + " characters!");
+        }
+        return value;
+    }
+
+    //Converte o valor para o tipo do campo. Todas as colunas são NOT NULL, então remover um campo não é permitido
+    public static <T> T value(String field, JsonNode node, Class<T> type) {
+        if (node == null || node.isNull()) throw new InvalidPatchException(field + " cannot be removed!");
+        if (type == String.class && !node.isTextual()) throw new InvalidPatchException(field + " must be a string!");
+        try {
+            return MAPPER.treeToValue(node, type);
+        } catch (Exception e) {
+            throw new InvalidPatchException("Invalid value for " + field + "!");
+        }
+    }
+
+    //Comparação das operações test. As datas são comparadas pelo instante, porque o Hibernate devolve java.sql.Timestamp
+    public static boolean sameValue(Object expected, Object actual) {
+        if (expected instanceof Date date && actual instanceof Date other) return date.getTime() == other.getTime();
+        return Objects.equals(expected, actual);
+    }
+}
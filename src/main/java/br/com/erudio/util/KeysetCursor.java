@@ -0,0 +1,70 @@
+package br.com.erudio.util;
+
+import br.com.erudio.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset (seek). Ele guarda a posição de um registro na ordenação (valor da coluna ordenada + id,
+ * que desempata) e o sentido da navegação: "next" busca os registros depois dessa posição e "prev" os registros antes dela.
+ * Para o cliente ele é só uma string em Base64 que vem nos links next/prev da resposta.
+ */
+public final class KeysetCursor {
+
+    private static final char NEXT = 'n';
+    private static final char PREV = 'p';
+
+    private final String value;
+    private final Long id;
+    private final boolean backward;
+
+    private KeysetCursor(String value, Long id, boolean backward) {
+        this.value = value;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    public static KeysetCursor next(String value, Long id) {
+        return new KeysetCursor(value, id, false);
+    }
+
+    public static KeysetCursor prev(String value, Long id) {
+        return new KeysetCursor(value, id, true);
+    }
+
+    /**
+     * Decodifica o cursor recebido no parâmetro "after". Um valor vazio significa a primeira página e retorna null.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            //Formato: <n|p>:<id>:<valor>. O valor vai por último porque pode conter ':'
+            String[] parts = decoded.split(":", 3);
+            if (parts.length != 3 || parts[0].length() != 1) throw new InvalidCursorException();
+            char direction = parts[0].charAt(0);
+            if (direction != NEXT && direction != PREV) throw new InvalidCursorException();
+            return new KeysetCursor(parts[2], Long.valueOf(parts[1]), direction == PREV);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        String raw = (backward ? PREV : NEXT) + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+}
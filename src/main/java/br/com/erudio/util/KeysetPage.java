@@ -0,0 +1,82 @@
+package br.com.erudio.util;
+
+import br.com.erudio.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resultado de uma consulta por keyset. A consulta busca size + 1 linhas: a linha extra só serve para saber se existe mais uma
+ * página naquele sentido, assim não precisamos do COUNT(*) que a paginação por OFFSET faz.
+ */
+public final class KeysetPage<T> {
+
+    //Maior página que uma listagem por cursor devolve
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final KeysetCursor next;
+    private final KeysetCursor prev;
+
+    private KeysetPage(List<T> content, KeysetCursor next, KeysetCursor prev) {
+        this.content = content;
+        this.next = next;
+        this.prev = prev;
+    }
+
+    /**
+     * Define se a consulta deve andar no sentido crescente da coluna ordenada. Voltar uma página numa listagem crescente
+     * significa buscar de forma decrescente a partir do cursor (e inverter o resultado depois), e vice-versa.
+     */
+    public static boolean seeksAscending(KeysetCursor cursor, Sort.Direction direction) {
+        boolean backward = cursor != null && cursor.isBackward();
+        return direction.isAscending() != backward;
+    }
+
+    /**
+     * Pageable que limita a consulta a size + 1 linhas, ordenando pela coluna e pelo id no sentido da busca.
+     * Um size fora de 1..MAX_SIZE é recusado com 400, em vez de estourar no PageRequest ou trazer a tabela inteira.
+     */
+    public static Pageable seekRequest(int size, String property, boolean ascending) {
+        if (size < 1 || size > MAX_SIZE) throw new InvalidCursorException("size must be between 1 and " + MAX_SIZE + "!");
+        var direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return PageRequest.of(0, size + 1, Sort.by(direction, property).and(Sort.by(direction, "id")));
+    }
+
+    public static <T> KeysetPage<T> of(List<T> rows, int size, KeysetCursor cursor,
+                                       Function<T, String> value, Function<T, Long> id) {
+        boolean backward = cursor != null && cursor.isBackward();
+        boolean hasMore = rows.size() > size;
+
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        //Quando voltamos uma página, as linhas vieram na ordem inversa
+        if (backward) Collections.reverse(content);
+        if (content.isEmpty()) return new KeysetPage<>(content, null, null);
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : cursor != null;
+
+        T first = content.get(0);
+        T last = content.get(content.size() - 1);
+        return new KeysetPage<>(content,
+                hasNext ? KeysetCursor.next(value.apply(last), id.apply(last)) : null,
+                hasPrev ? KeysetCursor.prev(value.apply(first), id.apply(first)) : null);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public KeysetCursor getNext() {
+        return next;
+    }
+
+    public KeysetCursor getPrev() {
+        return prev;
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.erudio.util;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.hateoas.server.core.MappingDiscoverer;
+import org.springframework.hateoas.server.core.UriMapping;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template de link HATEOAS para um método de controller, resolvido uma única vez.
+ * O linkTo(methodOn(...)) cria um proxy do controller e percorre os mapeamentos a cada chamada, o que pesa quando é feito para
+ * cada item de uma página. Aqui o caminho (ex: /api/person/v1/{id}) é lido dos @RequestMapping na criação do template e, a cada
+ * link, só concatenamos a URI base da requisição atual com os valores das variáveis.
+ * A URI base vem do ServletUriComponentsBuilder, assim como no WebMvcLinkBuilder, então os headers X-Forwarded-* continuam
+ * sendo respeitados quando o ForwardedHeaderFilter estiver ativo. Ela é calculada uma vez por requisição.
+ */
+public final class LinkTemplate {
+
+    private static final MappingDiscoverer DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    private final String template;
+    //Partes literais do template intercaladas com as variáveis: literals[0] {var} literals[1] {var} ... literals[n]
+    private final String[] literals;
+
+    private LinkTemplate(String template) {
+        this.template = template;
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) throw new IllegalArgumentException("Invalid URI template " + template);
+            parts.add(template.substring(start, open));
+            start = close + 1;
+        }
+        parts.add(template.substring(start));
+        this.literals = parts.toArray(new String[0]);
+    }
+
+    public static LinkTemplate of(Class<?> controller, String methodName, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(controller, methodName, parameterTypes);
+        if (method == null) {
+            throw new IllegalArgumentException("No method " + methodName + " found on " + controller.getName());
+        }
+        UriMapping uriMapping = DISCOVERER.getUriMapping(controller, method);
+        if (uriMapping == null) {
+            throw new IllegalArgumentException("Method " + methodName + " of " + controller.getName() + " has no request mapping");
+        }
+        String mapping = uriMapping.getMapping();
+        return new LinkTemplate(mapping.startsWith("/") ? mapping : "/" + mapping);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String expand(Object... parameters) {
+        return expandFrom(baseUri(), parameters);
+    }
+
+    //Mesma expansão com a URI base informada. Usado fora da thread da requisição (ex: nos Flux do caminho reativo),
+    //onde o RequestContextHolder não está disponível: a URI base é lida antes, na thread da requisição
+    public String expandFrom(String baseUri, Object... parameters) {
+        if (parameters.length != literals.length - 1) {
+            throw new IllegalArgumentException("Template " + template + " expects " + (literals.length - 1) + " parameters");
+        }
+        StringBuilder href = new StringBuilder(baseUri);
+        href.append(literals[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            Object parameter = parameters[i];
+            href.append(parameter instanceof Number
+                    ? parameter.toString()
+                    : UriUtils.encodePathSegment(String.valueOf(parameter), StandardCharsets.UTF_8));
+            href.append(literals[i + 1]);
+        }
+        return href.toString();
+    }
+
+    public Link withSelfRel(Object... parameters) {
+        return Link.of(expand(parameters), IanaLinkRelations.SELF);
+    }
+
+    public Link withSelfRelFrom(String baseUri, Object... parameters) {
+        return Link.of(expandFrom(baseUri, parameters), IanaLinkRelations.SELF);
+    }
+
+    //URI base da requisição atual (ex: http://localhost:8080), também usada na chave do ResponseBodyCache
+    public static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        //Fora de uma requisição (testes, jobs) o WebMvcLinkBuilder também gera links relativos
+        if (attributes == null) return "";
+
+        Object cached = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) return (String) cached;
+
+        String base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+        if (base.endsWith("/")) base = base.substring(0, base.length() - 1);
+        attributes.setAttribute(BASE_URI_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        return base;
+    }
+}
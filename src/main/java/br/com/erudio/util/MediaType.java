@@ -1,9 +1,44 @@
 package br.com.erudio.util;
 
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
 public class MediaType {
 
     public static final String APPLICATION_YML = "application/x-yaml";
     public static final String APPLICATION_JSON = "application/json";
     public static final String APPLICATION_XML = "application/xml";
+    //Formatos da exportação em streaming: um JSON por linha ou CSV
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final String TEXT_CSV = "text/csv";
+    //Documentos de atualização parcial (PATCH): JSON Merge Patch (RFC 7396) e JSON Patch (RFC 6902)
+    public static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+    public static final String APPLICATION_JSON_PATCH_JSON = "application/json-patch+json";
+
+    //Ordem de preferência quando o cliente aceita qualquer tipo, igual ao "produces" dos controllers
+    private static final List<String> PRODUCIBLE = List.of(APPLICATION_JSON, APPLICATION_XML, APPLICATION_YML);
+
+    /**
+     * Escolhe qual dos tipos acima a resposta vai ter para esse Accept, do mesmo jeito que a negociação do Spring: tipos
+     * mais específicos e com maior "q" primeiro. Retorna null quando nenhum deles é aceito.
+     */
+    public static String negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return PRODUCIBLE.get(0);
+        List<org.springframework.http.MediaType> accepted;
+        try {
+            accepted = org.springframework.http.MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (org.springframework.http.MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            for (String producible : PRODUCIBLE) {
+                if (type.isCompatibleWith(org.springframework.http.MediaType.valueOf(producible))) return producible;
+            }
+        }
+        return null;
+    }
 
 }
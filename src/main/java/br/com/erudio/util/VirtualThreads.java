@@ -0,0 +1,85 @@
+package br.com.erudio.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acesso às virtual threads (JDK 21+) sem exigir o JDK 21 para compilar: o projeto continua gerando bytecode 17 e as APIs
+ * novas (Thread.ofVirtual, Executors.newThreadPerTaskExecutor) são encontradas em tempo de execução.
+ * Em um JDK sem virtual threads, isSupported() retorna false e threadFactory(name, false) continua funcionando com threads de plataforma.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+    private static final MethodHandle THREAD_PER_TASK;
+
+    static {
+        MethodHandle ofVirtual = null, name = null, factory = null, threadPerTask = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+            name = lookup.findVirtual(ofVirtualBuilder, "name", MethodType.methodType(ofVirtualBuilder, String.class, long.class));
+            factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            threadPerTask = lookup.findStatic(java.util.concurrent.Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+        } catch (ReflectiveOperationException e) {
+            //JDK anterior ao 21
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        THREAD_PER_TASK = threadPerTask;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Fábrica de threads com nomes name-1, name-2... Virtual threads quando virtual = true, senão threads de plataforma daemon.
+     */
+    public static ThreadFactory threadFactory(String name, boolean virtual) {
+        if (!virtual) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        requireSupport();
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(), name + "-", 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread factory", e);
+        }
+    }
+
+    //Uma virtual thread nova para cada tarefa, sem fila nem limite de threads
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        requireSupport();
+        try {
+            return (ExecutorService) THREAD_PER_TASK.invoke(threadFactory(name, true));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    private static void requireSupport() {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need JDK 21 or newer, running on " + Runtime.version());
+        }
+    }
+}
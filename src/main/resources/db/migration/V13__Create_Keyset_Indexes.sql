@@ -0,0 +1,14 @@
+-- Um título NULL ou com mais de 250 caracteres precisa falhar a migration, e não virar '' ou ser cortado em silêncio como
+-- o MySQL faz fora do modo estrito: "Invalid use of NULL value" ou "Data truncated for column 'title'" aqui pedem correção
+-- manual desses livros antes de rodar de novo
+SET @previous_sql_mode = @@SESSION.sql_mode;
+SET SESSION sql_mode = CONCAT_WS(',', NULLIF(@@SESSION.sql_mode, ''), 'STRICT_ALL_TABLES');
+
+ALTER TABLE `book`
+	MODIFY COLUMN `title` varchar(250) NOT NULL;
+
+SET SESSION sql_mode = @previous_sql_mode;
+
+CREATE INDEX `idx_person_first_name_id` ON `person` (`first_name`, `id`);
+
+CREATE INDEX `idx_book_title_id` ON `book` (`title`, `id`);
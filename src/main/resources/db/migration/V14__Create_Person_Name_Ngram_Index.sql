@@ -0,0 +1,10 @@
+-- O parser ngram quebra o texto em pedaços de ngram_token_size caracteres (2 por padrão no MySQL), então o índice full-text
+-- consegue responder buscas por trechos do nome, que o LIKE '%...%' nunca consegue fazer usando índice.
+-- Com o parser ngram, qualquer token que contenha uma stopword é descartado (ex: "an" contém "a"), por isso o índice é criado
+-- com as stopwords desligadas nesta sessão.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE `person`
+	ADD FULLTEXT INDEX `ft_person_first_name` (`first_name`) WITH PARSER ngram;
+
+SET SESSION innodb_ft_enable_stopword = ON;
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS `person_seq` (
+	`next_val` bigint NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO `person_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 50 FROM `person`;
+
+CREATE TABLE IF NOT EXISTS `book_seq` (
+	`next_val` bigint NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO `book_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 50 FROM `book`;
@@ -0,0 +1,75 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.security.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a criação e a validação de tokens no JwtTokenProvider, que acontece respectivamente no /auth/signin e a cada requisição autenticada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    //0 desliga o cache de tokens verificados, para comparar o custo da verificação HMAC completa
+    @Param({"0", "1024"})
+    private long verifiedCacheSize;
+
+    private JwtTokenProvider tokenProvider;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        //O getAccessToken usa a URL da requisição atual como issuer, por isso simulamos uma requisição
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", "53cr37");
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.setField(tokenProvider, "authenticationSource", "claims");
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+        accessToken = tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).getAccessToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object createAccessToken() {
+        return tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER"));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public Object verifyAndAuthenticate() {
+        //Caminho do JwtTokenFilter: uma verificação e a autenticação montada a partir das claims
+        return tokenProvider.getAuthentication(tokenProvider.verifyToken(accessToken));
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.controller.PersonController;
+import br.com.erudio.util.LinkTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Mede a geração dos links HATEOAS que os services fazem para cada item das páginas e para a própria página.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBenchmark {
+
+    private static final LinkTemplate SELF_LINK = LinkTemplate.of(PersonController.class, "findById", Long.class, String.class, String.class);
+
+    private long id;
+
+    @Setup
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Link selfLinkWithMethodOn() {
+        return linkTo(methodOn(PersonController.class).findById(++id, null, null)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link selfLinkWithTemplate() {
+        return SELF_LINK.withSelfRel(++id);
+    }
+
+    @Benchmark
+    public Link pageLinkWithMethodOn() {
+        return linkTo(methodOn(PersonController.class).findAll(0, 12, "ASC")).withSelfRel();
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.data.vo.v2.PersonVOV2;
+import br.com.erudio.mapper.DozerMapper;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import br.com.erudio.unittests.mapper.mocks.MockBook;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o Dozer (reflexão) com os mapeamentos gerados pelo MapStruct que o DozerMapper usa agora.
+ * Os métodos "dozer*" chamam o Dozer diretamente, os métodos "generated*" passam pela API do DozerMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Mapper dozer;
+    private Person person;
+    private Book book;
+    private List<Person> people;
+
+    @Setup
+    public void setUp() {
+        dozer = DozerBeanMapperBuilder.buildDefault();
+        person = new MockPerson().mockEntity(1);
+        book = new MockBook().mockEntity(1);
+        people = new MockPerson().mockEntityList();
+    }
+
+    @Benchmark
+    public PersonVO dozerPerson() {
+        return dozer.map(person, PersonVO.class);
+    }
+
+    @Benchmark
+    public PersonVO generatedPerson() {
+        return DozerMapper.parseObject(person, PersonVO.class);
+    }
+
+    @Benchmark
+    public BookVO dozerBook() {
+        return dozer.map(book, BookVO.class);
+    }
+
+    @Benchmark
+    public BookVO generatedBook() {
+        return DozerMapper.parseObject(book, BookVO.class);
+    }
+
+    @Benchmark
+    public PersonVOV2 dozerPersonV2() {
+        return dozer.map(person, PersonVOV2.class);
+    }
+
+    @Benchmark
+    public PersonVOV2 generatedPersonV2() {
+        return DozerMapper.parseObject(person, PersonVOV2.class);
+    }
+
+    @Benchmark
+    public List<PersonVO> dozerPersonList() {
+        List<PersonVO> result = new ArrayList<>(people.size());
+        for (Person p : people) {
+            result.add(dozer.map(p, PersonVO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<PersonVO> generatedPersonList() {
+        return DozerMapper.parseListObjects(people, PersonVO.class);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.serialization.converter.YamlJackson2HttpConverter;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a serialização de uma página de PersonVO nos três formatos que a API produz (JSON, XML e YAML).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"12", "100"})
+    private int pageSize;
+
+    private PagedModel<EntityModel<PersonVO>> page;
+    private HttpMessageConverter<Object> json;
+    private HttpMessageConverter<Object> xml;
+    private HttpMessageConverter<Object> yaml;
+
+    @Setup
+    public void setUp() {
+        var mock = new MockPerson();
+        List<EntityModel<PersonVO>> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            PersonVO vo = mock.mockVO(i);
+            vo.add(Link.of("http://localhost:8888/api/person/v1/" + i).withSelfRel());
+            content.add(EntityModel.of(vo));
+        }
+        page = PagedModel.of(content, new PagedModel.PageMetadata(pageSize, 0, 1009),
+                Link.of("http://localhost:8888/api/person/v1?page=0&size=" + pageSize + "&direction=asc").withSelfRel());
+
+        json = cast(new MappingJackson2HttpMessageConverter());
+        xml = cast(new MappingJackson2XmlHttpMessageConverter());
+        yaml = cast(new YamlJackson2HttpConverter());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpMessageConverter<Object> cast(HttpMessageConverter<?> converter) {
+        return (HttpMessageConverter<Object>) converter;
+    }
+
+    private byte[] write(HttpMessageConverter<Object> converter, MediaType mediaType) throws IOException {
+        var output = new MockHttpOutputMessage();
+        converter.write(page, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return write(json, MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public byte[] xml() throws IOException {
+        return write(xml, MediaType.APPLICATION_XML);
+    }
+
+    @Benchmark
+    public byte[] yaml() throws IOException {
+        return write(yaml, MediaType.parseMediaType(br.com.erudio.util.MediaType.APPLICATION_YML));
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import br.com.erudio.util.VirtualThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o atendimento de requisições em threads de plataforma (pool fixo de 200, o padrão do Tomcat) e em virtual threads.
+ * Cada "requisição" pega uma conexão de um pool do tamanho de connectionPool, espera a latência do banco, devolve a conexão e
+ * serializa uma pessoa com o Jackson. Os dois modos usam o mesmo tamanho de pool de conexões, então a diferença vem só do
+ * número de threads: com pools maiores que 200 as threads de plataforma viram o gargalo.
+ * O modo virtual precisa de JDK 21: mvn -Pbenchmark,virtual-threads test -Djmh.includes=ThreadModeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"10", "50", "400"})
+    public int connectionPool;
+
+    @Param({"1000"})
+    public int requests;
+
+    @Param({"2"})
+    public long dbLatencyMillis;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+    private ObjectMapper mapper;
+    private PersonVO person;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? VirtualThreads.newThreadPerTaskExecutor("request")
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        connections = new Semaphore(connectionPool);
+        mapper = new ObjectMapper();
+        person = new MockPerson().mockVO(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    //Tempo para atender um lote de requisições concorrentes
+    @Benchmark
+    public int handleRequests() throws Exception {
+        List<Future<byte[]>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(executor.submit(this::handle));
+        }
+        int bytes = 0;
+        for (Future<byte[]> response : responses) {
+            bytes += response.get().length;
+        }
+        return bytes;
+    }
+
+    private byte[] handle() throws Exception {
+        connections.acquire();
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } finally {
+            connections.release();
+        }
+        return mapper.writeValueAsBytes(person);
+    }
+}
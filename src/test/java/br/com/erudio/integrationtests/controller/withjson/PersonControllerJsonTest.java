@@ -383,6 +383,20 @@ public class PersonControllerJsonTest extends AbstractIntegrationTest {
         assertTrue(content.contains("\"page\":{\"size\":10,\"totalElements\":1007,\"totalPages\":101,\"number\":3}}"));
     }
 
+    @Test
+    @Order(10)
+    void testPatchWithPlainJsonBodyIsRejected() {
+        //Um corpo application/json não é merge patch nem JSON patch, e não pode cair no PATCH que desabilita a pessoa
+        given().spec(specification)
+                .contentType(TestConfigs.CONTENT_TYPE_JSON)
+                .pathParams("id", 1)
+                .body("{\"firstName\":\"Ana\"}")
+                .when()
+                .patch("{id}")
+                .then()
+                .statusCode(415);
+    }
+
 
     private void mockPerson() {
         person.setFirstName("Richard");
@@ -7,7 +7,6 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import br.com.erudio.integrationtests.testcontainer.AbstractIntegrationTest;
 import br.com.erudio.repository.PersonRepository;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -25,6 +24,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 
+import br.com.erudio.data.projection.PersonRow;
 import br.com.erudio.model.Person;
 
 //Para esse caso de teste de integração do repository não precisamos subir o contexto do spring, mas sim do JPA, por isso vamos usar esta annotation
@@ -38,12 +38,7 @@ public class PersonRepositoryTest extends AbstractIntegrationTest {
     @Autowired
     public PersonRepository repository;
 
-    private static Person person;
-
-    @BeforeAll
-    public static void setup() {
-        person = new Person();
-    }
+    private static PersonRow person;
 
     @Test
     @Order(1)
@@ -52,44 +47,61 @@ public class PersonRepositoryTest extends AbstractIntegrationTest {
         Pageable pageable = PageRequest.of(0, 6, Sort.by(Direction.ASC, "firstName"));
         person = repository.findPersonsByName("ayr", pageable).getContent().get(0);
 
-        assertNotNull(person.getId());
-        assertNotNull(person.getFirstName());
-        assertNotNull(person.getLastName());
-        assertNotNull(person.getAddress());
-        assertNotNull(person.getGender());
+        assertNotNull(person.id());
+        assertNotNull(person.firstName());
+        assertNotNull(person.lastName());
+        assertNotNull(person.address());
+        assertNotNull(person.gender());
 
-        assertTrue(person.getEnabled());
+        assertTrue(person.enabled());
 
-        assertEquals(1, person.getId());
+        assertEquals(1, person.id());
 
-        assertEquals("Ayrton", person.getFirstName());
-        assertEquals("Senna", person.getLastName());
-        assertEquals("São Paulo", person.getAddress());
-        assertEquals("Male", person.getGender());
+        assertEquals("Ayrton", person.firstName());
+        assertEquals("Senna", person.lastName());
+        assertEquals("São Paulo", person.address());
+        assertEquals("Male", person.gender());
     }
 
     @Test
     @Order(2)
     public void testDisablePerson() throws JsonMappingException, JsonProcessingException {
 
-        repository.disablePerson(person.getId());
+        repository.disablePerson(person.id());
 
         Pageable pageable = PageRequest.of(0, 6, Sort.by(Direction.ASC, "firstName"));
         person = repository.findPersonsByName("ayr", pageable).getContent().get(0);
 
-        assertNotNull(person.getId());
-        assertNotNull(person.getFirstName());
-        assertNotNull(person.getLastName());
-        assertNotNull(person.getAddress());
-        assertNotNull(person.getGender());
+        assertNotNull(person.id());
+        assertNotNull(person.firstName());
+        assertNotNull(person.lastName());
+        assertNotNull(person.address());
+        assertNotNull(person.gender());
+
+        assertFalse(person.enabled());
+
+        assertEquals(1, person.id());
+
+        assertEquals("Ayrton", person.firstName());
+        assertEquals("Senna", person.lastName());
+        assertEquals("São Paulo", person.address());
+        assertEquals("Male", person.gender());
+    }
+
+    @Test
+    @Order(3)
+    public void testSearchByName() throws JsonMappingException, JsonProcessingException {
 
-        assertFalse(person.getEnabled());
+        //A query nativa ordena pelo nome da coluna
+        Pageable pageable = PageRequest.of(0, 6, Sort.by(Direction.ASC, "first_name"));
+        Person found = repository.searchPersonsByName("\"ayr\"", "ayr", pageable).getContent().get(0);
 
-        assertEquals(1, person.getId());
+        assertNotNull(found.getId());
+        assertEquals(1, found.getId());
 
-        assertEquals("Ayrton", person.getFirstName());
-        assertEquals("Senna", person.getLastName());
-        assertEquals("São Paulo", person.getAddress());
-        assertEquals("Male", person.getGender());
+        assertEquals("Ayrton", found.getFirstName());
+        assertEquals("Senna", found.getLastName());
+        assertEquals("São Paulo", found.getAddress());
+        assertEquals("Male", found.getGender());
     }
-}
\ No newline at end of file
+}
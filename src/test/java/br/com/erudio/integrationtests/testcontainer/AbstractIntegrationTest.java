@@ -26,7 +26,11 @@ public class AbstractIntegrationTest {
             return Map.of(
                     "spring.datasource.url", mysql.getJdbcUrl(),
                     "spring.datasource.username", mysql.getUsername(),
-                    "spring.datasource.password", mysql.getPassword()
+                    "spring.datasource.password", mysql.getPassword(),
+                    "spring.r2dbc.url", "r2dbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT)
+                            + "/" + mysql.getDatabaseName() + "?serverZoneId=UTC",
+                    "spring.r2dbc.username", mysql.getUsername(),
+                    "spring.r2dbc.password", mysql.getPassword()
             );
         }
 
@@ -0,0 +1,118 @@
+package br.com.erudio.unittests.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonRepository;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate com o cache de segundo nível (JCache/Caffeine) sobre um H2 em memória, e o PersonRepository de verdade.
+ * Os UPDATEs e DELETEs em lote não podem invalidar a região person inteira: só os ids afetados saem do cache.
+ */
+class EntityCacheEvictorTest {
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactions;
+    private PersonRepository repository;
+    private EntityCacheEvictor evictor;
+
+    @BeforeEach
+    void setUp() {
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:entity-cache;DB_CLOSE_DELAY=-1", "sa", ""));
+        factoryBean.setPackagesToScan("br.com.erudio.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName(),
+                "hibernate.javax.cache.missing_cache_strategy", "create",
+                "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(PersonRepository.class);
+        evictor = new EntityCacheEvictor();
+        ReflectionTestUtils.setField(evictor, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.invokeMethod(evictor, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Test
+    void testBulkDeleteKeepsOtherPeopleCached() {
+        Long first = persist("First");
+        Long second = persist("Second");
+        Cache cache = loadIntoCache(first, second);
+
+        transactions.executeWithoutResult(status -> {
+            assertEquals(1, repository.deletePeople(List.of(first)));
+            evictor.evict(Person.class, List.of(first));
+        });
+
+        assertFalse(cache.contains(Person.class, first));
+        assertTrue(cache.contains(Person.class, second));
+    }
+
+    @Test
+    void testBulkDisableReloadsOnlyTheAffectedPeople() {
+        Long first = persist("First");
+        Long second = persist("Second");
+        Cache cache = loadIntoCache(first, second);
+
+        transactions.executeWithoutResult(status -> {
+            assertEquals(1, repository.disablePeople(List.of(first)));
+            evictor.evict(Person.class, List.of(first));
+        });
+
+        assertTrue(cache.contains(Person.class, second));
+        Person disabled = transactions.execute(status -> repository.findById(first).orElseThrow());
+        assertFalse(disabled.getEnabled());
+        assertEquals(1, disabled.getVersion());
+    }
+
+    private Long persist(String firstName) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName("Last Name");
+        person.setAddress("Address");
+        person.setGender("Male");
+        person.setEnabled(true);
+        return transactions.execute(status -> repository.save(person).getId());
+    }
+
+    private Cache loadIntoCache(Long... ids) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        transactions.executeWithoutResult(status -> {
+            for (Long id : ids) repository.findById(id);
+        });
+        for (Long id : ids) assertTrue(cache.contains(Person.class, id));
+        return cache;
+    }
+}
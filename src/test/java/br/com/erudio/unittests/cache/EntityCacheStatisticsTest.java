@@ -0,0 +1,63 @@
+package br.com.erudio.unittests.cache;
+
+import br.com.erudio.cache.EntityCacheStatistics;
+import br.com.erudio.cache.EntityCacheStatistics.RegionStatistics;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheStatisticsTest {
+
+    private CachingProvider provider;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        //Mesmo provider e mesmo application.conf que o Hibernate usa. Os caches configurados lá são criados junto com o CacheManager
+        provider = new CaffeineCachingProvider();
+        cacheManager = provider.getCacheManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+        provider.close();
+    }
+
+    @Test
+    void testRegionsAreBoundedByConfiguration() {
+        Cache<Object, Object> person = cacheManager.getCache("person");
+        Cache<Object, Object> timestamps = cacheManager.getCache("default-update-timestamps-region");
+
+        Policy<?, ?> personPolicy = person.unwrap(com.github.benmanes.caffeine.cache.Cache.class).policy();
+        assertEquals(10000, personPolicy.eviction().orElseThrow().getMaximum());
+        assertTrue(personPolicy.expireAfterWrite().isPresent());
+
+        Policy<?, ?> timestampsPolicy = timestamps.unwrap(com.github.benmanes.caffeine.cache.Cache.class).policy();
+        assertTrue(timestampsPolicy.eviction().isEmpty());
+        assertTrue(timestampsPolicy.expireAfterWrite().isEmpty());
+    }
+
+    @Test
+    void testSnapshotReportsHitsAndMisses() {
+        Cache<Object, Object> book = cacheManager.getCache("book");
+        book.put(1L, "book");
+        book.get(1L);
+        book.get(2L);
+
+        RegionStatistics statistics = EntityCacheStatistics.snapshot(cacheManager).get("book");
+
+        assertEquals(1, statistics.hitCount());
+        assertEquals(1, statistics.missCount());
+        assertEquals(0.5, statistics.hitRatio());
+        assertEquals(1, statistics.estimatedSize());
+    }
+}
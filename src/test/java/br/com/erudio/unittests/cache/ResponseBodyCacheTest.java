@@ -0,0 +1,67 @@
+package br.com.erudio.unittests.cache;
+
+import br.com.erudio.cache.ResponseBodyCache;
+import br.com.erudio.util.MediaType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheTest {
+
+    private static final ResponseBodyCache.Key KEY = new ResponseBodyCache.Key("person", "1", MediaType.APPLICATION_JSON, "http://localhost:8888");
+
+    private ResponseBodyCache newCache() {
+        ResponseBodyCache cache = new ResponseBodyCache();
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        return cache;
+    }
+
+    @Test
+    void testStoredBodyIsWrittenBack() throws Exception {
+        ResponseBodyCache cache = newCache();
+        long stamp = cache.stamp("person", "1");
+        cache.put(KEY, stamp, MediaType.APPLICATION_JSON, "\"0-json\"", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        var entry = cache.get(KEY, stamp);
+        var output = new ByteArrayOutputStream();
+        entry.writeTo(output);
+
+        assertEquals(MediaType.APPLICATION_JSON, entry.getContentType());
+        assertEquals("{\"id\":1}", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEvictInvalidatesEntryAndReadsInFlight() {
+        ResponseBodyCache cache = newCache();
+        long stamp = cache.stamp("person", 1L);
+        cache.put(KEY, stamp, MediaType.APPLICATION_JSON, "\"0-json\"", new byte[]{1});
+
+        cache.evict("person", 1L);
+
+        assertNull(cache.get(KEY, cache.stamp("person", "1")));
+        //Uma leitura que começou antes do evict não pode gravar o corpo antigo
+        cache.put(KEY, stamp, MediaType.APPLICATION_JSON, "\"0-json\"", new byte[]{1});
+        assertNull(cache.get(KEY, cache.stamp("person", "1")));
+    }
+
+    @Test
+    void testEvictAllInvalidatesEveryVariantOfTheIds() {
+        ResponseBodyCache cache = newCache();
+        var xml = new ResponseBodyCache.Key("person", "1", MediaType.APPLICATION_XML, "http://localhost:8888");
+        var other = new ResponseBodyCache.Key("person", "2", MediaType.APPLICATION_JSON, "http://localhost:8888");
+        cache.put(KEY, cache.stamp("person", "1"), MediaType.APPLICATION_JSON, "\"0-json\"", new byte[]{1});
+        cache.put(xml, cache.stamp("person", "1"), MediaType.APPLICATION_XML, "\"0-xml\"", new byte[]{1});
+
+        cache.evictAll("person", List.of(1L, 3L));
+        cache.put(other, cache.stamp("person", "2"), MediaType.APPLICATION_JSON, "\"0-json\"", new byte[]{2});
+
+        assertNull(cache.get(KEY, cache.stamp("person", "1")));
+        assertNull(cache.get(xml, cache.stamp("person", "1")));
+        assertNotNull(cache.get(other, cache.stamp("person", "2")));
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.erudio.unittests.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class SecurityConfigTest {
+
+    @Test
+    void testMonitoringIsOpenOnlyOnTheManagementPort() {
+        var matcher = SecurityConfig.internalMonitoring(8081, 8080);
+
+        assertTrue(matcher.matches(request(8081, "/actuator/prometheus")));
+        assertTrue(matcher.matches(request(8081, "/actuator/health")));
+        assertTrue(matcher.matches(request(8081, "/actuator/health/liveness")));
+        //Os outros endpoints continuam autenticados mesmo na porta interna
+        assertFalse(matcher.matches(request(8081, "/actuator/metrics")));
+        assertFalse(matcher.matches(request(8080, "/actuator/prometheus")));
+    }
+
+    @Test
+    void testMonitoringNeedsAuthenticationWithoutASeparatePort() {
+        assertFalse(SecurityConfig.internalMonitoring(-1, 8080).matches(request(8080, "/actuator/prometheus")));
+        assertFalse(SecurityConfig.internalMonitoring(8080, 8080).matches(request(8080, "/actuator/health")));
+    }
+
+    private static MockHttpServletRequest request(int port, String path) {
+        var request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setLocalPort(port);
+        return request;
+    }
+}
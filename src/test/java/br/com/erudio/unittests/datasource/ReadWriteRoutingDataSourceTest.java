@@ -0,0 +1,127 @@
+package br.com.erudio.unittests.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.datasource.ReadWriteRoutingDataSource;
+import br.com.erudio.datasource.ReplicaLagMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dois bancos H2 em memória no lugar do primário e da réplica. Cada um tem uma linha diferente na tabela location, então
+ * a consulta diz de qual banco a conexão veio. A réplica tem uma tabela replica_lag lida pela consulta de atraso.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private JdbcTemplate replicaJdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replicaJdbc.execute("INSERT INTO replica_lag VALUES (0)");
+
+        monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+        monitor.check();
+        var routing = new ReadWriteRoutingDataSource(primary, monitor, Duration.ofSeconds(5), 100);
+        DataSource dataSource = routing.proxy();
+
+        jdbc = new JdbcTemplate(dataSource);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        monitor.close();
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(status -> location()));
+        assertEquals("primary", readWrite.execute(status -> location()));
+        //Fora de transação (Flyway, inicialização do Hibernate) sempre o primário
+        assertEquals("primary", location());
+    }
+
+    @Test
+    void testLaggingReplicaLeavesRotation() {
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 30");
+        monitor.check();
+        assertEquals(List.of(), monitor.getEligibleReplicas());
+        assertEquals("primary", readOnly.execute(status -> location()));
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = 2");
+        monitor.check();
+        assertEquals("replica", readOnly.execute(status -> location()));
+    }
+
+    @Test
+    void testStoppedReplicationLeavesRotation() {
+        replicaJdbc.update("UPDATE replica_lag SET seconds = NULL");
+        monitor.check();
+        assertEquals(-1L, monitor.getLags().get("replica-1"));
+        assertEquals("primary", readOnly.execute(status -> location()));
+    }
+
+    @Test
+    void testReadsYourOwnWritesFromPrimary() {
+        authenticate("leandro");
+        assertEquals("replica", readOnly.execute(status -> location()));
+
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE location SET name = 'primary'"));
+        assertEquals("primary", readOnly.execute(status -> location()));
+
+        //Outro usuário continua lendo da réplica
+        authenticate("flavio");
+        assertEquals("replica", readOnly.execute(status -> location()));
+    }
+
+    @Test
+    void testRolledBackWriteDoesNotStick() {
+        authenticate("leandro");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("UPDATE location SET name = 'primary'");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnly.execute(status -> location()));
+    }
+
+    private String location() {
+        return jdbc.queryForObject("SELECT name FROM location", String.class);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE location (name VARCHAR(20))");
+        jdbc.update("INSERT INTO location VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.erudio.unittests.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.cache.ResponseBodyCache;
+import br.com.erudio.config.DataSourceRoutingConfig;
+import br.com.erudio.datasource.ReadWriteRoutingDataSource;
+import br.com.erudio.datasource.ReplicaLagMonitor;
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonRepository;
+import br.com.erudio.util.MediaType;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * O Hibernate de verdade sobre o roteador, com dois H2 no lugar do primário e da réplica, e um EntityManager aberto para a
+ * requisição inteira como o OpenEntityManagerInViewInterceptor faz. As pessoas 1 e 2 têm um first_name diferente em cada
+ * banco, e o cache de segundo nível (JCache/Caffeine) está ligado.
+ */
+class ReadWriteRoutingJpaTest {
+
+    private ReplicaLagMonitor monitor;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private PersonRepository repository;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private EntityCacheEvictor evictor;
+    private ResponseBodyCache responseBodyCache;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replicaJdbc.execute("INSERT INTO replica_lag VALUES (0)");
+
+        monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+        monitor.check();
+        var routing = new ReadWriteRoutingDataSource(primary, monitor, Duration.ofSeconds(5), 100);
+
+        //O schema da réplica viria da replicação; aqui é o Hibernate que cria nos dois bancos
+        entityManagerFactory(replica, "create").destroy();
+        factoryBean = entityManagerFactory(routing.proxy(), "create-drop");
+        entityManagerFactory = factoryBean.getObject();
+        for (long id = 1; id <= 2; id++) {
+            insertPerson(primaryJdbc, id, "Primary");
+            insertPerson(replicaJdbc, id, "Replica");
+        }
+
+        var transactionManager = new JpaTransactionManager(entityManagerFactory);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(PersonRepository.class);
+        evictor = new EntityCacheEvictor();
+        ReflectionTestUtils.setField(evictor, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.invokeMethod(evictor, "init");
+        responseBodyCache = new ResponseBodyCache();
+        ReflectionTestUtils.invokeMethod(responseBodyCache, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            var holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+        factoryBean.destroy();
+        monitor.close();
+    }
+
+    @Test
+    void testPutAfterReadInTheSameRequestGoesToPrimary() {
+        openEntityManagerInView();
+
+        //GET: o findById do Spring Data roda numa transação readOnly e lê da réplica
+        Person read = readOnly.execute(status -> repository.findById(1L).orElseThrow());
+        assertEquals("Replica", read.getFirstName());
+
+        //PUT: leitura e save na mesma transação de escrita, como o PersonService.update
+        readWrite.executeWithoutResult(status -> {
+            Person person = repository.findById(1L).orElseThrow();
+            person.setLastName("Updated");
+            repository.saveAndFlush(person);
+        });
+
+        assertEquals("Updated", lastName(primaryJdbc));
+        assertEquals("Last Name", lastName(replicaJdbc));
+    }
+
+    @Test
+    void testReplicaReadAfterAWriteDoesNotFillTheSharedCaches() {
+        //Escrita de um usuário: vai para o primário e tira a pessoa 1 dos dois caches
+        authenticate("leandro");
+        readWrite.executeWithoutResult(status -> {
+            assertEquals(1, repository.disablePeople(List.of(1L)));
+            evictor.evict(Person.class, 1L);
+            responseBodyCache.evict("person", 1L);
+        });
+
+        //GET de outro usuário, que vai para a réplica: ela ainda não recebeu o UPDATE
+        authenticate("flavio");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertTrue(getPerson(1L).getEnabled());
+        assertTrue(getPerson(2L).getEnabled());
+
+        //A pessoa 1 antiga não fica em nenhum cache; a 2, que ninguém alterou, continua sendo guardada
+        jakarta.persistence.Cache entityCache = entityManagerFactory.getCache();
+        assertFalse(entityCache.contains(Person.class, 1L));
+        assertTrue(entityCache.contains(Person.class, 2L));
+        assertNull(putAndGetBody(1L));
+        assertNotNull(putAndGetBody(2L));
+    }
+
+    private Person getPerson(Long id) {
+        return readOnly.execute(status -> repository.findById(id).orElseThrow());
+    }
+
+    private ResponseBodyCache.Entry putAndGetBody(Long id) {
+        var key = new ResponseBodyCache.Key("person", String.valueOf(id), MediaType.APPLICATION_JSON, "http://localhost:8888");
+        long stamp = responseBodyCache.stamp("person", id);
+        responseBodyCache.put(key, stamp, MediaType.APPLICATION_JSON, "\"0-json\"",
+                "{\"enabled\":true}".getBytes(StandardCharsets.UTF_8));
+        return responseBodyCache.get(key, stamp);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private void openEntityManagerInView() {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+    }
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, String ddlAuto) {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "hibernate.hbm2ddl.auto", ddlAuto,
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName(),
+                "hibernate.javax.cache.missing_cache_strategy", "create",
+                "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE"));
+        new DataSourceRoutingConfig().releaseConnectionAfterTransaction().customize(properties);
+
+        var factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("br.com.erudio.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        return factoryBean;
+    }
+
+    private static void insertPerson(JdbcTemplate jdbc, long id, String firstName) {
+        jdbc.update("INSERT INTO person (id, first_name, last_name, address, gender, enabled, version) "
+                + "VALUES (?, ?, 'Last Name', 'Address', 'Male', true, 0)", id, firstName);
+    }
+
+    private static String lastName(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT last_name FROM person WHERE id = 1", String.class);
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
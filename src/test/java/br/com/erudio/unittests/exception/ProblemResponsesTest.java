@@ -0,0 +1,54 @@
+package br.com.erudio.unittests.exception;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.exception.PreconditionFailedException;
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.exception.handler.ProblemResponses;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+class ProblemResponsesTest {
+
+    private final ProblemResponses problems = new ProblemResponses();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testWritesProblemDetails() throws Exception {
+        var response = problems.response(HttpStatus.NOT_FOUND, "No records found for this ID!");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        JsonNode body = mapper.readTree(response.getBody());
+        assertEquals("about:blank", body.get("type").asText());
+        assertEquals("Not Found", body.get("title").asText());
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("No records found for this ID!", body.get("detail").asText());
+    }
+
+    @Test
+    void testReusesBodyForSameStatusAndDetail() {
+        byte[] first = problems.body(HttpStatus.NOT_FOUND, "No records found for this ID!");
+        assertSame(first, problems.body(HttpStatus.NOT_FOUND, "No records found for this ID!"));
+        assertNotSame(first, problems.body(HttpStatus.BAD_REQUEST, "No records found for this ID!"));
+    }
+
+    @Test
+    void testEscapesDetail() throws Exception {
+        String detail = "Only top level paths can be patched: /a\"b\\c\n\u0001";
+        JsonNode body = mapper.readTree(problems.body(HttpStatus.BAD_REQUEST, detail));
+        assertEquals(detail, body.get("detail").asText());
+        assertFalse(mapper.readTree(problems.body(HttpStatus.BAD_REQUEST, null)).has("detail"));
+    }
+
+    @Test
+    void testExpectedOutcomesHaveNoStackTrace() {
+        assertEquals(0, new ResourceNotFoundException("No records found for this ID!").getStackTrace().length);
+        assertEquals(0, new PreconditionFailedException().getStackTrace().length);
+        assertEquals(0, new InvalidJwtAuthenticationException("Expired or invalid JWT token!").getStackTrace().length);
+    }
+}
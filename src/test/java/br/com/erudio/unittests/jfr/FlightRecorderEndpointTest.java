@@ -0,0 +1,77 @@
+package br.com.erudio.unittests.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.jfr.FlightRecorderEndpoint;
+import br.com.erudio.jfr.MappingEvent;
+import br.com.erudio.mapper.DozerMapper;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.List;
+
+class FlightRecorderEndpointTest {
+
+    private FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecorderEndpoint();
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void testEventsAreDisabledOutsideARecording() {
+        assertFalse(new MappingEvent().isEnabled());
+        assertEquals("NONE", endpoint.status().get("state"));
+        assertNull(endpoint.dump("dump"));
+    }
+
+    @Test
+    void testRecordsMappingEvents() throws Exception {
+        assertEquals("RUNNING", endpoint.start(null, Duration.ofMinutes(1), null).get("state"));
+        assertThrows(IllegalStateException.class, () -> endpoint.start(null, null, null));
+
+        DozerMapper.parseListObjects(new MockPerson().mockEntityList(), PersonVO.class);
+
+        Resource dump = endpoint.dump("dump");
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().equals("br.com.erudio.Mapping"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("Person", events.get(0).getString("source"));
+        assertEquals("PersonVO", events.get(0).getString("target"));
+        assertEquals(14, events.get(0).getInt("count"));
+        assertTrue(events.get(0).getBoolean("generated"));
+
+        assertEquals("STOPPED", endpoint.stop().get("state"));
+        assertNull(endpoint.dump("recording"));
+    }
+
+    @Test
+    void testJdkSettingsLeaveOutEnvironmentAndSystemProperties() throws Exception {
+        endpoint.start("default", Duration.ofMinutes(1), null);
+
+        Resource dump = endpoint.dump("dump");
+        List<String> names = RecordingFile.readAllEvents(dump.getFile().toPath()).stream()
+                .map(event -> event.getEventType().getName())
+                .distinct()
+                .toList();
+        //Os eventos do JDK continuam na gravação, menos os que copiam ambiente, propriedades e linha de comando
+        assertTrue(names.stream().anyMatch(name -> name.startsWith("jdk.")));
+        assertFalse(names.contains("jdk.InitialEnvironmentVariable"));
+        assertFalse(names.contains("jdk.InitialSystemProperty"));
+        assertFalse(names.contains("jdk.JVMInformation"));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.erudio.unittests.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.logging.MdcTaskDecorator;
+import br.com.erudio.logging.RequestIdFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class MdcTaskDecoratorTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testWorkerSeesTheRequestIdOfTheSubmittingThread() throws Exception {
+        MDC.put(RequestIdFilter.MDC_KEY, "edge-1234");
+
+        Future<String> seen = pool.submit(MdcTaskDecorator.wrap(() -> MDC.get(RequestIdFilter.MDC_KEY)));
+
+        assertEquals("edge-1234", seen.get());
+    }
+
+    @Test
+    void testWorkerDoesNotKeepTheContextOfAnEarlierTask() throws Exception {
+        MDC.put(RequestIdFilter.MDC_KEY, "edge-1234");
+        pool.submit(new MdcTaskDecorator().decorate(() -> { })).get();
+        MDC.clear();
+
+        Future<String> seen = pool.submit(MdcTaskDecorator.wrap(() -> MDC.get(RequestIdFilter.MDC_KEY)));
+
+        assertNull(seen.get());
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.erudio.unittests.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.logging.RequestIdFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    @Test
+    void testPutsReceivedIdInMdcDuringTheRequest() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/person/v1/1");
+        request.addHeader(RequestIdFilter.HEADER, "edge-1234");
+        var response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(RequestIdFilter.MDC_KEY));
+            }
+        });
+
+        assertEquals("edge-1234", seen.get());
+        assertEquals("edge-1234", response.getHeader(RequestIdFilter.HEADER));
+        assertNull(MDC.get(RequestIdFilter.MDC_KEY));
+    }
+
+    @Test
+    void testGeneratesIdWhenReceivedOneIsMissingOrUnsafe() {
+        assertTrue(RequestIdFilter.requestId(null).matches("[0-9a-f]{16}"));
+        assertTrue(RequestIdFilter.requestId("abc\r\nINFO forged line").matches("[0-9a-f]{16}"));
+        assertTrue(RequestIdFilter.requestId("x".repeat(65)).matches("[0-9a-f]{16}"));
+        assertNotEquals(RequestIdFilter.requestId(null), RequestIdFilter.requestId(null));
+    }
+}
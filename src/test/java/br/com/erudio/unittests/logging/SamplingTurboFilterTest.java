@@ -0,0 +1,57 @@
+package br.com.erudio.unittests.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import br.com.erudio.logging.SamplingTurboFilter;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setRates("br.com.erudio.service=100, br.com.erudio.service.UserService=1");
+    }
+
+    @Test
+    void testSamplesInfoOfConfiguredLoggers() {
+        Logger logger = context.getLogger("br.com.erudio.service.PersonService");
+        int logged = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, logger, Level.INFO, "Finding one person!", null, null) == FilterReply.NEUTRAL) logged++;
+        }
+        //Uma em cada 100, com folga para a aleatoriedade
+        assertTrue(logged > 40 && logged < 250, "logged " + logged);
+    }
+
+    @Test
+    void testLongestPrefixWinsAndWarningsAreNeverDropped() {
+        Logger userService = context.getLogger("br.com.erudio.service.UserService");
+        Logger personService = context.getLogger("br.com.erudio.service.PersonService");
+        Logger other = context.getLogger("br.com.erudio.config.SecurityConfig");
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, userService, Level.INFO, "Finding one user by name {}!", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, personService, Level.WARN, "Batch rejected", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "Started", null, null));
+            //isInfoEnabled() não pode ser amostrado, senão o código que o consulta vê o nível ligando e desligando
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, personService, Level.INFO, null, null, null));
+        }
+    }
+
+    @Test
+    void testRejectsInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("br.com.erudio.service"));
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("br.com.erudio.service=0"));
+        filter.setRates("");
+        Logger logger = context.getLogger("br.com.erudio.service.PersonService");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Finding one person!", null, null));
+    }
+}
@@ -8,10 +8,18 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import br.com.erudio.data.projection.BookRow;
+import br.com.erudio.data.projection.PersonRow;
+import br.com.erudio.data.vo.v1.BookVO;
 import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.data.vo.v2.PersonVOV2;
 import br.com.erudio.mapper.DozerMapper;
+import br.com.erudio.model.Book;
 import br.com.erudio.model.Person;
+import br.com.erudio.unittests.mapper.mocks.MockBook;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
 
 public class DozerConverterTest {
 
@@ -97,4 +105,43 @@ public class DozerConverterTest {
         assertEquals("Addres Test12", outputTwelve.getAddress());
         assertEquals("Male", outputTwelve.getGender());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseBookEntityToVOTest() {
+        Book entity = new MockBook().mockEntity(3);
+        BookVO output = DozerMapper.parseObject(entity, BookVO.class);
+        assertEquals(Long.valueOf(3L), output.getKey());
+        assertEquals("Some Author3", output.getAuthor());
+        assertEquals("Some Title3", output.getTitle());
+        assertEquals(entity.getLaunchDate(), output.getLaunchDate());
+        assertEquals(25D, output.getPrice());
+    }
+
+    @Test
+    public void generatedMappingsMatchDozerTest() {
+        //Os mapeamentos gerados precisam produzir exatamente o mesmo resultado que o Dozer
+        Mapper dozer = DozerBeanMapperBuilder.buildDefault();
+        Person person = inputObject.mockEntity(5);
+        Book book = new MockBook().mockEntity(5);
+
+        assertEquals(dozer.map(person, PersonVO.class), DozerMapper.parseObject(person, PersonVO.class));
+        assertEquals(dozer.map(person, PersonVOV2.class), DozerMapper.parseObject(person, PersonVOV2.class));
+        assertEquals(dozer.map(book, BookVO.class), DozerMapper.parseObject(book, BookVO.class));
+        assertEquals(dozer.map(inputObject.mockVO(5), Person.class), DozerMapper.parseObject(inputObject.mockVO(5), Person.class));
+        assertEquals(dozer.map(new MockBook().mockVO(5), Book.class).getTitle(), DozerMapper.parseObject(new MockBook().mockVO(5), Book.class).getTitle());
+    }
+
+    @Test
+    public void parseRowsToVOTest() {
+        //As linhas projetadas das listagens precisam gerar o mesmo VO que a entidade completa
+        Person person = inputObject.mockEntity(7);
+        Book book = new MockBook().mockEntity(7);
+        PersonRow personRow = new PersonRow(person.getId(), person.getFirstName(), person.getLastName(),
+                person.getAddress(), person.getGender(), person.getEnabled(), person.getVersion());
+        BookRow bookRow = new BookRow(book.getId(), book.getAuthor(), book.getLaunchDate(), book.getPrice(), book.getTitle(), book.getVersion());
+
+        assertEquals(DozerMapper.parseObject(person, PersonVO.class), DozerMapper.parseObject(personRow, PersonVO.class));
+        assertEquals(DozerMapper.parseObject(book, BookVO.class), DozerMapper.parseObject(bookRow, BookVO.class));
+        assertEquals(Long.valueOf(7L), DozerMapper.parseObject(personRow, PersonVO.class).getKey());
+    }
+}
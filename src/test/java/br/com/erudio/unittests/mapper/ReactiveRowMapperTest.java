@@ -0,0 +1,57 @@
+package br.com.erudio.unittests.mapper;
+
+import br.com.erudio.mapper.ReactiveRowMapper;
+import io.r2dbc.spi.Row;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveRowMapperTest {
+
+    @Test
+    void testToPersonVO() {
+        Row row = mock(Row.class);
+        when(row.get("id", Long.class)).thenReturn(7L);
+        when(row.get("first_name", String.class)).thenReturn("First Name Test7");
+        when(row.get("last_name", String.class)).thenReturn("Last Name Test7");
+        when(row.get("address", String.class)).thenReturn("Addres Test7");
+        when(row.get("gender", String.class)).thenReturn("Female");
+        when(row.get("enabled", Boolean.class)).thenReturn(true);
+
+        var vo = ReactiveRowMapper.toPersonVO(row);
+
+        assertEquals(7L, vo.getKey());
+        assertEquals("First Name Test7", vo.getFirstName());
+        assertEquals("Last Name Test7", vo.getLastName());
+        assertEquals("Addres Test7", vo.getAddress());
+        assertEquals("Female", vo.getGender());
+        assertTrue(vo.getEnabled());
+        assertTrue(vo.getLinks().isEmpty());
+    }
+
+    @Test
+    void testToBookVO() {
+        LocalDateTime launchDate = LocalDateTime.of(2017, 11, 29, 13, 50, 5);
+        Row row = mock(Row.class);
+        when(row.get("id", Long.class)).thenReturn(3L);
+        when(row.get("author", String.class)).thenReturn("Author Test3");
+        when(row.get("launch_date", LocalDateTime.class)).thenReturn(launchDate);
+        when(row.get("price", BigDecimal.class)).thenReturn(new BigDecimal("49.90"));
+        when(row.get("title", String.class)).thenReturn("Title Test3");
+
+        var vo = ReactiveRowMapper.toBookVO(row);
+
+        assertEquals(3L, vo.getKey());
+        assertEquals("Author Test3", vo.getAuthor());
+        assertEquals(Date.from(launchDate.toInstant(ZoneOffset.UTC)), vo.getLaunchDate());
+        assertEquals(49.90, vo.getPrice());
+        assertEquals("Title Test3", vo.getTitle());
+    }
+}
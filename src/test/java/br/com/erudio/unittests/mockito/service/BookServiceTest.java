@@ -1,7 +1,10 @@
 package br.com.erudio.unittests.mockito.service;
 
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.cache.ResponseBodyCache;
 import br.com.erudio.data.vo.v1.BookVO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.exception.ResourceNotFoundException;
 import br.com.erudio.model.Book;
 import br.com.erudio.repository.BookRepository;
 import br.com.erudio.service.BookService;
@@ -22,6 +25,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -36,6 +41,12 @@ class BookServiceTest {
     @Mock
     BookRepository repository;
 
+    @Mock
+    ResponseBodyCache responseBodyCache;
+
+    @Mock
+    EntityCacheEvictor entityCacheEvictor;
+
     @BeforeEach
     void setUp() {
         input = new MockBook();
@@ -166,7 +177,7 @@ class BookServiceTest {
 
         //Quando o método repository for chamado a gente vai retornar um mock, é isso que vamos implementar com esse mockito
         when(repository.findById(1L)).thenReturn(Optional.of(entity));
-        when(repository.save(entity)).thenReturn(persisted);
+        when(repository.saveAndFlush(entity)).thenReturn(persisted);
 
         //Agora vamos efetivamente chamar o service com o metodo findById
         var result = service.update(vo);
@@ -181,13 +192,18 @@ class BookServiceTest {
 
     @Test
     void testDelete() {
-        Book entity = input.mockEntity(1);
-        entity.setId(1L);
-
-        //Quando o método repository for chamado a gente vai retornar um mock, é isso que vamos implementar com esse mockito
-        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        //O DELETE sai direto pelo id, sem ler o livro antes
+        when(repository.deleteBook(1L)).thenReturn(1);
 
-        //Agora vamos efetivamente chamar o service com o metodo findById
         service.delete(1L);
+
+        verify(repository, never()).findById(1L);
+    }
+
+    @Test
+    void testDeleteNotFound() {
+        when(repository.deleteBook(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.delete(1L));
     }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package br.com.erudio.unittests.mockito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonRepository;
+import br.com.erudio.service.PersonExportService;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class PersonExportServiceTest {
+
+    MockPerson input;
+
+    @InjectMocks
+    private PersonExportService service;
+
+    @Mock
+    private PersonRepository repository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUpMocks() {
+        input = new MockPerson();
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void testExportNdjson() {
+        Person first = input.mockEntity(1);
+        first.setEnabled(true);
+        Person second = input.mockEntity(2);
+        second.setEnabled(false);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamAll(true, null)).thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        var out = new ByteArrayOutputStream();
+        long rows = service.export(PersonExportService.Format.NDJSON, true, null, out);
+
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"firstName\":\"First Name Test1\",\"lastName\":\"Last Name Test1\",\"address\":\"Addres Test1\",\"gender\":\"Female\",\"enabled\":true}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        //O Stream precisa ser fechado e cada entidade descartada do contexto de persistência
+        assertTrue(closed.get());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void testExportCsvQuotesSpecialCharacters() {
+        Person person = input.mockEntity(1);
+        person.setAddress("Rua A, 10");
+        person.setLastName("O\"Neil");
+        person.setEnabled(true);
+        when(repository.streamAll(null, "Female")).thenReturn(Stream.of(person));
+
+        var out = new ByteArrayOutputStream();
+        long rows = service.export(PersonExportService.Format.CSV, null, "Female", out);
+
+        assertEquals(1, rows);
+        assertEquals("id,first_name,last_name,address,gender,enabled\r\n"
+                + "1,First Name Test1,\"O\"\"Neil\",\"Rua A, 10\",Female,true\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.erudio.unittests.mockito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import br.com.erudio.exception.InvalidBatchException;
+import br.com.erudio.model.Person;
+import br.com.erudio.service.PersonImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class PersonImportServiceTest {
+
+    @InjectMocks
+    private PersonImportService service;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUpMocks() {
+        MockitoAnnotations.openMocks(this);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    void testImportCsvSkipsInvalidLines() {
+        String csv = "first_name,last_name,address,gender,enabled\r\n"
+                + "Ana,Silva,\"Rua A, 10\",Female,\r\n"
+                + ",Souza,Rua B,Male,true\r\n"
+                + "Caio,\"Lima\nNeto\",Rua C,Male,false\r\n"
+                + "Dani,Reis,Rua D,Female,maybe\r\n";
+
+        var report = service.importPeople(PersonImportService.Format.CSV, stream(csv));
+
+        assertEquals(4, report.getRead());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.getRejectedLines().get(0).startsWith("line 3: firstName"));
+        assertTrue(report.getRejectedLines().get(1).startsWith("line 6: enabled"));
+
+        ArgumentCaptor<Person> persisted = ArgumentCaptor.forClass(Person.class);
+        verify(entityManager, times(2)).persist(persisted.capture());
+        assertEquals("Rua A, 10", persisted.getAllValues().get(0).getAddress());
+        assertTrue(persisted.getAllValues().get(0).getEnabled());
+        assertEquals("Lima\nNeto", persisted.getAllValues().get(1).getLastName());
+        assertFalse(persisted.getAllValues().get(1).getEnabled());
+        //Um bloco de 2 linhas: um flush e um clear
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void testImportNdjsonRetriesFailedChunkRowByRow() {
+        String ndjson = "{\"firstName\":\"Ana\",\"lastName\":\"Silva\",\"address\":\"Rua A\",\"gender\":\"Female\"}\n"
+                + "not json\n"
+                + "{\"firstName\":\"Bia\",\"lastName\":\"Souza\",\"address\":\"Rua B\",\"gender\":\"Female\"}\n";
+        //O flush do bloco falha; na gravação linha a linha só a segunda pessoa é recusada
+        AtomicInteger flushes = new AtomicInteger();
+        doAnswer(invocation -> {
+            int flush = flushes.incrementAndGet();
+            if (flush == 1 || flush == 3) throw new PersistenceException("duplicate");
+            return null;
+        }).when(entityManager).flush();
+
+        var report = service.importPeople(PersonImportService.Format.NDJSON, stream(ndjson));
+
+        assertEquals(3, report.getRead());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.getRejectedLines().get(0).startsWith("line 2: Invalid JSON"));
+        assertEquals("line 3: duplicate", report.getRejectedLines().get(1));
+    }
+
+    @Test
+    void testImportCsvRequiresHeader() {
+        assertThrows(InvalidBatchException.class,
+                () -> service.importPeople(PersonImportService.Format.CSV, stream("name,address\r\nAna,Rua A\r\n")));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,25 +1,44 @@
 package br.com.erudio.unittests.mockito.service;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import br.com.erudio.cache.EntityCacheEvictor;
+import br.com.erudio.cache.ResponseBodyCache;
+import br.com.erudio.data.projection.PersonRow;
 import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.exception.InvalidBatchException;
+import br.com.erudio.exception.InvalidPatchException;
+import br.com.erudio.exception.PreconditionFailedException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.exception.ResourceNotFoundException;
 import br.com.erudio.model.Person;
+import br.com.erudio.repository.PartialUpdateRepository;
 import br.com.erudio.repository.PersonRepository;
 import br.com.erudio.service.PersonService;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +52,18 @@ class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    ResponseBodyCache responseBodyCache;
+
+    @Mock
+    EntityCacheEvictor entityCacheEvictor;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    PartialUpdateRepository partialUpdateRepository;
+
     @BeforeEach
     void setUpMocks() {
         input = new MockPerson();
@@ -63,10 +94,11 @@ class PersonServiceTest {
 
     @Test
     void testCreate() {
-        //Antes de ser persistida
+        //Antes de ser persistida: o POST sempre grava sem id
         Person entity = input.mockEntity(1);
+        entity.setId(null);
         //Depois de ser persistida
-        Person persisted = entity;
+        Person persisted = input.mockEntity(1);
         persisted.setId(1L);
 
         PersonVO vo = input.mockVO(1);
@@ -87,6 +119,24 @@ class PersonServiceTest {
         assertEquals("Female", result.getGender());
     }
 
+    @Test
+    void testCreateWithExistingKeyInsertsANewPerson() {
+        Person persisted = input.mockEntity(8);
+        persisted.setId(8L);
+        when(personRepository.save(any(Person.class))).thenReturn(persisted);
+        //Corpo com a key de uma pessoa que já existe e já foi alterada
+        PersonVO vo = input.mockVO(1);
+        vo.setKey(1L);
+        vo.setVersion(3L);
+
+        var result = service.create(vo);
+
+        ArgumentCaptor<Person> saved = ArgumentCaptor.forClass(Person.class);
+        verify(personRepository).save(saved.capture());
+        assertNull(saved.getValue().getId());
+        assertEquals(8L, result.getKey());
+    }
+
     @Test
     void testCreateWithNullPerson() {
         Exception exception = assertThrows(RequiredObjectIsNullException.class, () -> {
@@ -125,7 +175,7 @@ class PersonServiceTest {
 
         //Quando o método repository for chamado a gente vai retornar um mock, é isso que vamos implementar com esse mockito
         when(personRepository.findById(1L)).thenReturn(Optional.of(entity));
-        when(personRepository.save(entity)).thenReturn(persisted);
+        when(personRepository.saveAndFlush(entity)).thenReturn(persisted);
 
         var result = service.update(vo);
 
@@ -141,12 +191,216 @@ class PersonServiceTest {
 
     @Test
     void testDelete() {
+        //O DELETE sai direto pelo id, sem ler a pessoa antes
+        when(personRepository.deletePerson(1L)).thenReturn(1);
+
+        service.delete(1L);
+
+        verify(personRepository, never()).findById(1L);
+        verify(responseBodyCache).evict("person", 1L);
+    }
+
+    @Test
+    void testDeleteNotFound() {
+        when(personRepository.deletePerson(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.delete(1L));
+    }
+
+    @Test
+    void testDisablePersonReturnsUpdatedRow() {
+        when(personRepository.disablePersonIfVersion(1L, 3L)).thenReturn(1);
+        when(personRepository.findRowById(1L))
+                .thenReturn(Optional.of(new PersonRow(1L, "First Name Test1", "Last Name Test1", "Addres Test1", "Female", false, 4L)));
+
+        var result = service.disablePerson(1L, "\"3-json\"", "application/json");
+
+        assertEquals("\"4-json\"", result.getHeaders().getETag());
+        assertFalse(result.getBody().getEnabled());
+        assertEquals(1L, result.getBody().getKey());
+        verify(personRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testDisablePersonNotFound() {
+        when(personRepository.disablePerson(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.disablePerson(1L, null, "application/json"));
+        verify(personRepository, never()).findRowById(1L);
+    }
+
+    @Test
+    void testMergePatchWithIfMatchSkipsPreRead() throws Exception {
+        var body = new ObjectMapper().readTree("{\"lastName\":\"Souza\"}");
+        when(partialUpdateRepository.update(Person.class, 1L, 3L, Map.of("lastName", "Souza"))).thenReturn(1);
+        when(personRepository.findRowById(1L))
+                .thenReturn(Optional.of(new PersonRow(1L, "First Name Test1", "Souza", "Addres Test1", "Female", true, 4L)));
+
+        var result = service.patch(1L, body, false, "\"3-json\"", "application/json");
+
+        assertEquals("\"4-json\"", result.getHeaders().getETag());
+        assertEquals("1", result.getHeaders().getFirst("X-Columns-Written"));
+        assertEquals("Souza", result.getBody().getLastName());
+        //Só uma leitura, depois do UPDATE, para montar a resposta
+        verify(personRepository, times(1)).findRowById(1L);
+        verify(personRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testJsonPatchFailedTest() throws Exception {
+        var body = new ObjectMapper().readTree("[{\"op\":\"test\",\"path\":\"/firstName\",\"value\":\"Ana\"},"
+                + "{\"op\":\"replace\",\"path\":\"/firstName\",\"value\":\"Bia\"}]");
+        when(personRepository.findRowById(1L))
+                .thenReturn(Optional.of(new PersonRow(1L, "Carla", "Souza", "Addres Test1", "Female", true, 4L)));
+
+        assertThrows(PreconditionFailedException.class, () -> service.patch(1L, body, true, null, "application/json"));
+        verify(partialUpdateRepository, never()).update(any(), any(), any(), any());
+    }
+
+    @Test
+    void testJsonPatchTestAfterReplaceSeesTheNewValue() throws Exception {
+        var body = new ObjectMapper().readTree("[{\"op\":\"replace\",\"path\":\"/firstName\",\"value\":\"Bia\"},"
+                + "{\"op\":\"test\",\"path\":\"/firstName\",\"value\":\"Bia\"}]");
+        when(partialUpdateRepository.update(Person.class, 1L, null, Map.of("firstName", "Bia"))).thenReturn(1);
+        when(personRepository.findRowById(1L))
+                .thenReturn(Optional.of(new PersonRow(1L, "Bia", "Souza", "Addres Test1", "Female", true, 5L)));
+
+        var result = service.patch(1L, body, true, null, "application/json");
+
+        assertEquals("Bia", result.getBody().getFirstName());
+        //O test confere o valor do replace anterior, sem ler a linha antes do UPDATE
+        verify(personRepository, times(1)).findRowById(1L);
+    }
+
+    @Test
+    void testPatchRejectsUnknownField() throws Exception {
+        var body = new ObjectMapper().readTree("{\"key\":2}");
+
+        assertThrows(InvalidPatchException.class, () -> service.patch(1L, body, false, null, "application/json"));
+    }
+
+    @Test
+    void testDisablePeopleIgnoresRepeatedIds() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10);
+        when(personRepository.disablePeople(Set.of(1L, 2L, 3L))).thenReturn(2);
+
+        var result = service.disablePeople(List.of(1L, 2L, 2L, 3L));
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getAffected());
+        //Só os ids do lote saem do cache de segundo nível
+        verify(entityCacheEvictor).evict(Person.class, Set.of(1L, 2L, 3L));
+        assertThrows(InvalidBatchException.class, () -> service.deletePeople(List.of()));
+    }
+
+    @Test
+    void testFindByIdNotModified() {
         Person entity = input.mockEntity(1);
         entity.setId(1L);
-        //Quando o método repository for chamado a gente vai retornar um mock, é isso que vamos implementar com esse mockito
+        entity.setVersion(3);
         when(personRepository.findById(1L)).thenReturn(Optional.of(entity));
 
-        //Agora vamos efetivamente chamar o service com o metodo findById
-        service.delete(1L);
+        var result = service.findById(1L, "\"3-json\"", "application/json");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertEquals("\"3-json\"", result.getHeaders().getETag());
+        assertNull(result.getBody());
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatch() {
+        Person entity = input.mockEntity(1);
+        entity.setId(1L);
+        entity.setVersion(4);
+        PersonVO vo = input.mockVO(1);
+        vo.setKey(1L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(entity));
+
+        assertThrows(PreconditionFailedException.class, () -> service.update(vo, "\"3-json\"", "application/json"));
+        verify(personRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testDeleteWithIfMatchUsesSingleStatement() {
+        when(personRepository.deleteIfVersion(1L, 3L)).thenReturn(1);
+
+        service.delete(1L, "\"3-xml\"");
+
+        verify(personRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testDeleteWithStaleIfMatch() {
+        when(personRepository.deleteIfVersion(1L, 3L)).thenReturn(0);
+        when(personRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> service.delete(1L, "\"3-json\""));
+    }
+
+    @Test
+    void testSaveAllReportsEachItem() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10);
+        //O TransactionTemplate mockado só executa o callback
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        PersonVO valid = input.mockVO(1);
+        valid.setKey(null);
+        PersonVO invalid = input.mockVO(2);
+        invalid.setKey(null);
+        invalid.setFirstName(null);
+        PersonVO missing = input.mockVO(3);
+        missing.setKey(99L);
+
+        Person persisted = input.mockEntity(1);
+        persisted.setId(1L);
+        when(personRepository.findAllById(List.of(99L))).thenReturn(List.of());
+        when(personRepository.saveAll(anyList())).thenReturn(List.of(persisted));
+
+        var results = service.saveAll(List.of(valid, invalid, missing));
+
+        assertEquals(3, results.size());
+        assertEquals(HttpStatus.CREATED.value(), results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getItem().getKey());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+        assertNull(results.get(1).getItem());
+        assertEquals(HttpStatus.NOT_FOUND.value(), results.get(2).getStatus());
+        verify(personRepository).flush();
+    }
+
+    @Test
+    void testSaveAllRejectsStaleVersion() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        Person current = input.mockEntity(1);
+        current.setId(1L);
+        current.setVersion(3);
+        PersonVO stale = input.mockVO(1);
+        stale.setKey(1L);
+        stale.setVersion(2L);
+        stale.setAddress("Changed Address");
+        when(personRepository.findAllById(List.of(1L))).thenReturn(List.of(current));
+        when(personRepository.saveAll(anyList())).thenReturn(List.of());
+
+        var results = service.saveAll(List.of(stale));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), results.get(0).getStatus());
+        assertEquals("Addres Test1", current.getAddress());
+        verify(personRepository).saveAll(List.of());
+    }
+
+    @Test
+    void testSaveAllRejectsOversizedBatch() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 2);
+        List<PersonVO> people = new ArrayList<>(input.mockVOList().subList(0, 3));
+
+        assertThrows(InvalidBatchException.class, () -> service.saveAll(people));
+        verifyNoInteractions(transactionTemplate);
     }
-}
\ No newline at end of file
+}
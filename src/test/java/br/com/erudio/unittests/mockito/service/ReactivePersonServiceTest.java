@@ -0,0 +1,67 @@
+package br.com.erudio.unittests.mockito.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.repository.ReactivePersonRepository;
+import br.com.erudio.service.ReactivePersonService;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class ReactivePersonServiceTest {
+
+    MockPerson input;
+
+    @InjectMocks
+    private ReactivePersonService service;
+
+    @Mock
+    private ReactivePersonRepository repository;
+
+    @BeforeEach
+    void setUpMocks() {
+        input = new MockPerson();
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testFindAllAddsSelfLinks() {
+        when(repository.findAll(0, null, Sort.Direction.ASC)).thenReturn(Flux.fromIterable(input.mockVOList()));
+
+        var people = service.findAll(0, null, Sort.Direction.ASC).collectList().block();
+
+        assertEquals(14, people.size());
+        assertTrue(people.get(1).toString().contains("links: [</api/person/v1/1>;rel=\"self\"]"));
+    }
+
+    @Test
+    void testFindByIdNotFound() {
+        when(repository.findById(1L)).thenReturn(Mono.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(1L).block());
+    }
+
+    @Test
+    void testShortNamesSkipTheFullTextIndex() {
+        when(repository.findByName("a", Sort.Direction.ASC)).thenReturn(Flux.empty());
+
+        service.findPersonsByName("a", Sort.Direction.ASC).blockLast();
+
+        verify(repository, never()).searchByName(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.model.User;
+import br.com.erudio.security.cache.UserDetailsCache;
+import br.com.erudio.security.jwt.JwtTokenFilter;
+import br.com.erudio.security.jwt.JwtTokenProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        userDetailsService = mock(UserDetailsService.class);
+        userDetailsCache = new UserDetailsCache();
+        ReflectionTestUtils.setField(userDetailsCache, "enabled", true);
+        ReflectionTestUtils.invokeMethod(userDetailsCache, "init");
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", "53cr37");
+        ReflectionTestUtils.setField(tokenProvider, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(tokenProvider, "userDetailsCache", userDetailsCache);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testAuthenticationFromClaims() {
+        ReflectionTestUtils.setField(tokenProvider, "authenticationSource", "claims");
+        String token = tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).getAccessToken();
+
+        var auth = tokenProvider.getAuthentication(token);
+
+        assertEquals("leandro", auth.getName());
+        assertEquals(List.of("ADMIN", "MANAGER"), auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testAuthenticationFromDatabaseIsCached() {
+        User user = new User();
+        user.setUserName("leandro");
+        user.setEnabled(true);
+        user.setAccountNonLocked(true);
+        user.setAccountNonExpired(true);
+        user.setPermissions(List.of());
+        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(user);
+        String token = tokenProvider.createAccessToken("leandro", List.of("ADMIN")).getAccessToken();
+
+        assertNotNull(tokenProvider.getAuthentication(token));
+        assertNotNull(tokenProvider.getAuthentication(token));
+
+        verify(userDetailsService, times(1)).loadUserByUsername("leandro");
+        assertEquals(1, userDetailsCache.stats().hitCount());
+        assertEquals(1, userDetailsCache.stats().missCount());
+    }
+
+    @Test
+    void testDisabledUserIsNotAuthenticated() {
+        User user = new User();
+        user.setUserName("flavio");
+        user.setEnabled(false);
+        user.setAccountNonLocked(true);
+        user.setAccountNonExpired(true);
+        user.setPermissions(List.of());
+        when(userDetailsService.loadUserByUsername("flavio")).thenReturn(user);
+        String token = tokenProvider.createAccessToken("flavio", List.of("ADMIN")).getAccessToken();
+
+        assertNull(tokenProvider.getAuthentication(token));
+    }
+
+    @Test
+    void testVerifiedTokenIsReused() {
+        String token = tokenProvider.createAccessToken("leandro", List.of("ADMIN")).getAccessToken();
+
+        DecodedJWT first = tokenProvider.verifyToken(token);
+        DecodedJWT second = tokenProvider.verifyToken(token);
+
+        assertSame(first, second);
+        assertTrue(tokenProvider.validateToken(token));
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        String token = tokenProvider.createAccessToken("leandro", List.of("ADMIN")).getAccessToken();
+        tokenProvider.verifyToken(token);
+
+        //Mesmo com a assinatura já no cache, um payload diferente precisa ser recusado
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"roles\":[\"ADMIN\"],\"exp\":4102444800}".getBytes()) + "." + parts[2];
+
+        assertThrows(InvalidJwtAuthenticationException.class, () -> tokenProvider.verifyToken(forged));
+    }
+
+    @Test
+    void testTokenWithoutExpirationIsRejected() {
+        Algorithm algorithm = (Algorithm) ReflectionTestUtils.getField(tokenProvider, "algorithm");
+        String token = JWT.create().withSubject("leandro").withClaim("roles", List.of("ADMIN")).sign(algorithm);
+
+        assertThrows(InvalidJwtAuthenticationException.class, () -> tokenProvider.validateToken(token));
+    }
+
+    @Test
+    void testFilterRejectsTokenWithoutExpiration() {
+        ReflectionTestUtils.setField(tokenProvider, "authenticationSource", "claims");
+        Algorithm algorithm = (Algorithm) ReflectionTestUtils.getField(tokenProvider, "algorithm");
+        String token = JWT.create().withSubject("leandro").withClaim("roles", List.of("ADMIN")).sign(algorithm);
+        var request = new MockHttpServletRequest("GET", "/api/person/v1");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        //O filtro usa o verifyToken direto, sem passar pelo validateToken
+        assertThrows(InvalidJwtAuthenticationException.class, () ->
+                new JwtTokenFilter(tokenProvider).doFilter(request, new MockHttpServletResponse(), new MockFilterChain()));
+        assertThrows(InvalidJwtAuthenticationException.class, () -> tokenProvider.getAuthentication(token));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.model.User;
+import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.hashing.PasswordEncoderProfiles;
+import br.com.erudio.security.hashing.PasswordEncoderProperties;
+import br.com.erudio.security.hashing.PasswordEncoderProperties.Pbkdf2Profile;
+import br.com.erudio.security.hashing.PasswordWorkFactorCalibrator;
+import br.com.erudio.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PasswordEncoderProfilesTest {
+
+    //Hash sem prefixo do usuário leandro (senha admin123), como está no V8__Insert_Data_In_Users.sql
+    private static final String LEGACY_HASH = "1e3cdeeaaaeeda173ff6d002e7cb5e3f91ebc354dcff52156c9eaba1793a3a5e5bee306c11099e22";
+
+    private PasswordEncoderProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordEncoderProperties();
+        properties.getProfiles().put("pbkdf2-fast", new Pbkdf2Profile(1000, 16));
+    }
+
+    @Test
+    void testLegacyHashMatchesAndIsUpgraded() {
+        PasswordEncoder encoder = PasswordEncoderProfiles.delegatingEncoder(properties);
+
+        assertTrue(encoder.matches("admin123", LEGACY_HASH));
+        assertTrue(encoder.upgradeEncoding(LEGACY_HASH));
+        assertTrue(encoder.encode("admin123").startsWith("{pbkdf2}"));
+    }
+
+    @Test
+    void testOutdatedProfileIsUpgradedToEncodingId() {
+        PasswordEncoder oldEncoder = PasswordEncoderProfiles.delegatingEncoder(properties);
+        String oldHash = oldEncoder.encode("admin123");
+
+        properties.setEncodingId("pbkdf2-fast");
+        PasswordEncoder encoder = PasswordEncoderProfiles.delegatingEncoder(properties);
+        String newHash = encoder.encode("admin123");
+
+        assertTrue(encoder.matches("admin123", oldHash));
+        assertTrue(encoder.upgradeEncoding(oldHash));
+        assertTrue(newHash.startsWith("{pbkdf2-fast}"));
+        assertTrue(encoder.matches("admin123", newHash));
+        assertFalse(encoder.upgradeEncoding(newHash));
+    }
+
+    @Test
+    void testUnknownEncodingIdIsRejected() {
+        properties.setEncodingId("bcrypt");
+        assertThrows(IllegalStateException.class, () -> PasswordEncoderProfiles.delegatingEncoder(properties));
+    }
+
+    @Test
+    void testUpdatePasswordPersistsNewHash() {
+        UserRepository repository = mock(UserRepository.class);
+        UserService service = new UserService(repository);
+        User user = new User();
+        user.setUserName("leandro");
+        user.setPassword(LEGACY_HASH);
+
+        var updated = service.updatePassword(user, "{pbkdf2-fast}abc");
+
+        verify(repository).updatePassword("leandro", "{pbkdf2-fast}abc");
+        assertEquals("{pbkdf2-fast}abc", updated.getPassword());
+    }
+
+    @Test
+    void testCalibratorProposesAtLeastTheMinimum() {
+        int iterations = PasswordWorkFactorCalibrator.calibrate(Duration.ofMillis(1), 16);
+        assertTrue(iterations >= PasswordWorkFactorCalibrator.MINIMUM_ITERATIONS);
+        assertEquals(0, iterations % 1000);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.config.MetricsConfig;
+import br.com.erudio.exception.AuthenticationOverloadedException;
+import br.com.erudio.security.hashing.PasswordHashingExecutor;
+import br.com.erudio.security.hashing.PooledPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", registry);
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.invokeMethod(executor, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(executor, "shutdown");
+    }
+
+    @Test
+    void testExecuteReturnsResultAndRecordsLatency() {
+        assertEquals("ok", executor.execute(() -> "ok"));
+        assertEquals(1, executor.getCompletedCount());
+        assertTrue(executor.getTotalHashNanos() > 0);
+        assertEquals(1, registry.get("security.password.hash").timer().count());
+        assertEquals(1, registry.get("security.password.queue-wait").timer().count());
+    }
+
+    @Test
+    void testPoolMetricsAreBound() {
+        new MetricsConfig().passwordHashingMetrics(executor).bindTo(registry);
+
+        assertEquals(1, registry.get("security.password.pool.size").gauge().value());
+        assertEquals(1, registry.get("security.password.queue.capacity").gauge().value());
+        assertEquals(0, registry.get("security.password.rejected").tag("reason", "queue-full").functionCounter().count());
+    }
+
+    @Test
+    void testTaskExceptionIsPropagated() {
+        assertThrows(BadCredentialsException.class, () -> executor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        //Uma tarefa ocupando a única thread e outra ocupando a única vaga da fila
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "second"));
+        while (executor.getQueueDepth() == 0) Thread.onSpinWait();
+
+        assertThrows(AuthenticationOverloadedException.class, () -> executor.execute(() -> "third"));
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        assertEquals("first", running.get(2, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOnlyThePasswordCheckRunsOnThePool() {
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        PasswordEncoder hashing = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "{noop}" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                threads.put("matches", Thread.currentThread().getName());
+                return ("{noop}" + rawPassword).equals(encodedPassword);
+            }
+        };
+        UserDetailsService users = username -> {
+            threads.put("loadUserByUsername", Thread.currentThread().getName());
+            return User.withUsername(username).password("{noop}admin123").authorities("ADMIN").build();
+        };
+        var provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(new PooledPasswordEncoder(hashing, executor));
+
+        assertTrue(provider.authenticate(new UsernamePasswordAuthenticationToken("leandro", "admin123")).isAuthenticated());
+
+        //A busca do usuário fica na thread da requisição, só o hash entra no pool
+        assertEquals(Thread.currentThread().getName(), threads.get("loadUserByUsername"));
+        assertTrue(threads.get("matches").startsWith("password-hashing-"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.erudio.unittests.util;
+
+import br.com.erudio.exception.PreconditionFailedException;
+import br.com.erudio.util.ETags;
+import br.com.erudio.util.MediaType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void testNegotiateFollowsAcceptHeader() {
+        assertEquals(MediaType.APPLICATION_JSON, MediaType.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, MediaType.negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_XML, MediaType.negotiate("application/xml"));
+        assertEquals(MediaType.APPLICATION_YML, MediaType.negotiate("text/html;q=0.9, application/x-yaml"));
+        assertEquals(MediaType.APPLICATION_XML, MediaType.negotiate("application/json;q=0.5, application/xml"));
+        assertNull(MediaType.negotiate("text/html"));
+    }
+
+    @Test
+    void testETagDependsOnVersionAndMediaType() {
+        assertEquals("\"3-json\"", ETags.of(3, null));
+        assertEquals("\"3-xml\"", ETags.of(3, "application/xml"));
+        assertEquals("\"3-x-yaml\"", ETags.of(3, "application/x-yaml"));
+    }
+
+    @Test
+    void testIfNoneMatchUsesWeakComparison() {
+        assertTrue(ETags.matches("\"3-json\"", "\"3-json\""));
+        assertTrue(ETags.matches("W/\"3-json\"", "\"3-json\""));
+        assertTrue(ETags.matches("\"2-json\", \"3-json\"", "\"3-json\""));
+        assertTrue(ETags.matches("*", "\"3-json\""));
+        assertFalse(ETags.matches("\"3-xml\"", "\"3-json\""));
+        assertFalse(ETags.matches(null, "\"3-json\""));
+    }
+
+    @Test
+    void testIfMatchVersion() {
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+        assertEquals(3L, ETags.expectedVersion("\"3-json\""));
+        assertEquals(3L, ETags.expectedVersion("\"3-x-yaml\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("W/\"3-json\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("\"abc\""));
+    }
+}
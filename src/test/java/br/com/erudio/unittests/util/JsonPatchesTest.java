@@ -0,0 +1,88 @@
+package br.com.erudio.unittests.util;
+
+import br.com.erudio.exception.InvalidPatchException;
+import br.com.erudio.util.JsonPatches;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPatchesTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testMergePatchKeepsOnlyPresentFields() throws Exception {
+        var patch = JsonPatches.parse(json("{\"firstName\":\"Ana\",\"enabled\":null}"), false);
+
+        assertEquals(List.of("firstName", "enabled"), List.copyOf(patch.changes().keySet()));
+        assertEquals("Ana", patch.changes().get("firstName").asText());
+        assertTrue(patch.changes().get("enabled").isNull());
+        assertTrue(patch.tests().isEmpty());
+    }
+
+    @Test
+    void testJsonPatchOperations() throws Exception {
+        var patch = JsonPatches.parse(json("[{\"op\":\"test\",\"path\":\"/title\",\"value\":\"Old\"},"
+                + "{\"op\":\"replace\",\"path\":\"/title\",\"value\":\"New\"},"
+                + "{\"op\":\"remove\",\"path\":\"/author\"}]"), true);
+
+        assertEquals("Old", patch.tests().get(0).value().asText());
+        assertTrue(patch.tests().get(0).readsCurrentValue());
+        assertEquals("New", patch.changes().get("title").asText());
+        assertTrue(patch.changes().get("author").isNull());
+    }
+
+    @Test
+    void testJsonPatchTestSeesEarlierOperations() throws Exception {
+        //RFC 6902: as operações valem em ordem, então o test depois do replace confere o valor novo
+        var patch = JsonPatches.parse(json("[{\"op\":\"replace\",\"path\":\"/title\",\"value\":\"New\"},"
+                + "{\"op\":\"test\",\"path\":\"/title\",\"value\":\"New\"},"
+                + "{\"op\":\"test\",\"path\":\"/author\",\"value\":\"Ana\"}]"), true);
+
+        assertEquals(2, patch.tests().size());
+        assertFalse(patch.tests().get(0).readsCurrentValue());
+        assertEquals("New", patch.tests().get(0).patched().asText());
+        assertTrue(patch.tests().get(1).readsCurrentValue());
+    }
+
+    @Test
+    void testRejectsUnsupportedDocuments() throws Exception {
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.parse(json("[1]"), false));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.parse(json("{}"), true));
+        assertThrows(InvalidPatchException.class,
+                () -> JsonPatches.parse(json("[{\"op\":\"move\",\"from\":\"/a\",\"path\":\"/b\"}]"), true));
+        assertThrows(InvalidPatchException.class,
+                () -> JsonPatches.parse(json("[{\"op\":\"replace\",\"path\":\"/links/0\",\"value\":1}]"), true));
+        assertThrows(InvalidPatchException.class,
+                () -> JsonPatches.parse(json("[{\"op\":\"replace\",\"path\":\"/title\"}]"), true));
+    }
+
+    @Test
+    void testValueConversion() throws Exception {
+        assertEquals("Ana", JsonPatches.text("firstName", json("\"Ana\""), 80));
+        assertEquals(25D, JsonPatches.value("price", json("25"), Double.class));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.text("firstName", json("\" \""), 80));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.text("gender", json("\"Feminino\""), 6));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.text("firstName", json("10"), 80));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.value("enabled", json("null"), Boolean.class));
+        assertThrows(InvalidPatchException.class, () -> JsonPatches.value("price", json("\"cheap\""), Double.class));
+    }
+
+    @Test
+    void testSameValueComparesDatesByInstant() {
+        Date date = new Date(1_000L);
+        assertTrue(JsonPatches.sameValue(date, new Timestamp(1_000L)));
+        assertFalse(JsonPatches.sameValue(date, new Timestamp(2_000L)));
+        assertTrue(JsonPatches.sameValue("Ana", "Ana"));
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return mapper.readTree(content);
+    }
+}
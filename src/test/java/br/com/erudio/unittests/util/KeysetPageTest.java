@@ -0,0 +1,69 @@
+package br.com.erudio.unittests.util;
+
+import br.com.erudio.exception.InvalidCursorException;
+import br.com.erudio.model.Person;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import br.com.erudio.util.KeysetCursor;
+import br.com.erudio.util.KeysetPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetPageTest {
+
+    MockPerson input = new MockPerson();
+
+    @Test
+    public void cursorRoundTripTest() {
+        KeysetCursor cursor = KeysetCursor.prev("Ana: Maria", 42L);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals("Ana: Maria", decoded.getValue());
+        assertEquals(42L, decoded.getId());
+        assertTrue(decoded.isBackward());
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    public void invalidCursorTest() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+    }
+
+    @Test
+    public void sizeOutOfRangeTest() {
+        assertThrows(InvalidCursorException.class, () -> KeysetPage.seekRequest(-1, "firstName", true));
+        assertThrows(InvalidCursorException.class, () -> KeysetPage.seekRequest(0, "firstName", true));
+        assertThrows(InvalidCursorException.class, () -> KeysetPage.seekRequest(KeysetPage.MAX_SIZE + 1, "firstName", true));
+        assertEquals(KeysetPage.MAX_SIZE + 1, KeysetPage.seekRequest(KeysetPage.MAX_SIZE, "firstName", true).getPageSize());
+    }
+
+    @Test
+    public void firstPageTest() {
+        //Pedimos 3 itens e a consulta trouxe 4: existe próxima página, mas não a anterior
+        List<Person> rows = input.mockEntityList().subList(0, 4);
+        var page = KeysetPage.of(rows, 3, null, Person::getFirstName, Person::getId);
+
+        assertEquals(3, page.getContent().size());
+        assertNull(page.getPrev());
+        assertEquals(2L, page.getNext().getId());
+        assertEquals("First Name Test2", page.getNext().getValue());
+        assertTrue(KeysetPage.seeksAscending(null, Sort.Direction.ASC));
+    }
+
+    @Test
+    public void backwardPageTest() {
+        //Voltando uma página as linhas chegam em ordem inversa e precisam ser reordenadas
+        KeysetCursor cursor = KeysetCursor.prev("First Name Test5", 5L);
+        List<Person> rows = List.of(input.mockEntity(4), input.mockEntity(3), input.mockEntity(2));
+        var page = KeysetPage.of(rows, 3, cursor, Person::getFirstName, Person::getId);
+
+        assertFalse(KeysetPage.seeksAscending(cursor, Sort.Direction.ASC));
+        assertEquals(2L, page.getContent().get(0).getId());
+        assertEquals(4L, page.getContent().get(2).getId());
+        assertEquals(4L, page.getNext().getId());
+        assertNull(page.getPrev());
+    }
+}
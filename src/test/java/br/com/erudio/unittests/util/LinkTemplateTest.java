@@ -0,0 +1,53 @@
+package br.com.erudio.unittests.util;
+
+import br.com.erudio.controller.BookController;
+import br.com.erudio.controller.PersonController;
+import br.com.erudio.util.LinkTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+public class LinkTemplateTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void resolvesTemplateFromMappingsTest() {
+        assertEquals("/api/person/v1/{id}", LinkTemplate.of(PersonController.class, "findById", Long.class, String.class, String.class).getTemplate());
+        assertEquals("/api/book/v1/{id}", LinkTemplate.of(BookController.class, "findById", Long.class, String.class, String.class).getTemplate());
+    }
+
+    @Test
+    public void relativeLinkOutsideRequestTest() {
+        Link link = LinkTemplate.of(PersonController.class, "findById", Long.class, String.class, String.class).withSelfRel(1L);
+        assertEquals("/api/person/v1/1", link.getHref());
+        assertEquals(IanaLinkRelations.SELF, link.getRel());
+    }
+
+    @Test
+    public void sameLinkAsMethodOnInsideRequestTest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("erudio.com.br");
+        request.setServerPort(443);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Link expected = linkTo(methodOn(BookController.class).findById(7L, null, null)).withSelfRel();
+        Link actual = LinkTemplate.of(BookController.class, "findById", Long.class, String.class, String.class).withSelfRel(7L);
+
+        assertEquals("https://erudio.com.br/api/book/v1/7", actual.getHref());
+        assertEquals(expected.getHref(), actual.getHref());
+        assertEquals(expected.getRel(), actual.getRel());
+    }
+}
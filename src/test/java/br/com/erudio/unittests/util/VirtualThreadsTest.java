@@ -0,0 +1,39 @@
+package br.com.erudio.unittests.util;
+
+import br.com.erudio.util.VirtualThreads;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testSupportFollowsRuntimeVersion() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+    }
+
+    @Test
+    void testPlatformThreadFactory() throws Exception {
+        Thread thread = VirtualThreads.threadFactory("writer", false).newThread(() -> { });
+        assertEquals("writer-1", thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    void testVirtualThreadPerTaskExecutor() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(IllegalStateException.class, () -> VirtualThreads.newThreadPerTaskExecutor("task"));
+            return;
+        }
+        var executor = VirtualThreads.newThreadPerTaskExecutor("task");
+        try {
+            String name = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).get(5, TimeUnit.SECONDS);
+            assertEquals("task-1", name);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}